@@ -27,6 +27,7 @@ import com.luantc.test.animation.ChartAnimator;
 import com.luantc.test.animation.Easing;
 import com.luantc.test.animation.EasingFunction;
 
+import java.io.File;
 import java.util.Random;
 
 
@@ -41,10 +42,13 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
     ViewModel pie4View;
     ViewModel pie5View;
 
+    private static PieDiskCache sDiskCache;
+
     @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SliceImageCache.getInstance(this).setDecoder(new UilSliceImageDecoder(this));
         setContentView(R.layout.activity_main);
 
         pie1 = (View) findViewById(R.id.pie1);
@@ -52,18 +56,6 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         pie3 = (View) findViewById(R.id.pie3);
         pie4 = (View) findViewById(R.id.pie4);
         pie5 = (View) findViewById(R.id.pie5);
-/*
-        Bitmap a = BitmapFactory.decodeResource(getResources(), R.drawable.a);
-        Bitmap b = BitmapFactory.decodeResource(getResources(), R.drawable.b);
-        Bitmap c = BitmapFactory.decodeResource(getResources(), R.drawable.c);
-        Bitmap d = BitmapFactory.decodeResource(getResources(), R.drawable.d);
-        Bitmap e = BitmapFactory.decodeResource(getResources(), R.drawable.e);
-
-        pie1.setBackground(new BitmapDrawable(getResources(),a));
-        pie2.setBackground(new BitmapDrawable(getResources(),b));
-        pie3.setBackground(new BitmapDrawable(getResources(),c));
-        pie4.setBackground(new BitmapDrawable(getResources(),d));
-        pie5.setBackground(new BitmapDrawable(getResources(),e));*/
 
         setViewModel();
 
@@ -81,6 +73,14 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         pie = (CircleLayout) findViewById(R.id.pie);
 
         pie.setAnimationOnly(true);
+        pie.setRotationEnabled(true);
+        pie.setSnapAngle(180f);
+
+        if (sDiskCache == null) {
+            sDiskCache = new PieDiskCache(new File(getCacheDir(), "pies"), 8 * 1024 * 1024);
+        }
+        pie.setRenderCacheKey("main");
+        pie.setDiskCache(sDiskCache);
     }
 
     @Override
@@ -93,50 +93,40 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         if (id == R.id.pie1){
 
             Toast.makeText(getApplicationContext(), "" + pie1View.getPercentage(), Toast.LENGTH_SHORT).show();
-            pie1View.setNeedHighlight(true);
-            pie.invalidate();
+            pie.select(pie.indexOfChild(pie1));
             animation(pie1);
 
         }else if (id == R.id.pie2){
 
             Toast.makeText(getApplicationContext(), "" + pie2View.getPercentage(), Toast.LENGTH_SHORT).show();
-            pie2View.setNeedHighlight(true);
-            pie.invalidate();
+            pie.select(pie.indexOfChild(pie2));
             animation(pie2);
 
         }else if (id == R.id.pie3){
 
             Toast.makeText(getApplicationContext(), "" + pie3View.getPercentage(), Toast.LENGTH_SHORT).show();
-            pie3View.setNeedHighlight(true);
-            pie.invalidate();
+            pie.select(pie.indexOfChild(pie3));
             animation(pie3);
 
         }else if (id == R.id.pie4){
 
             Toast.makeText(getApplicationContext(), "" + pie4View.getPercentage(), Toast.LENGTH_SHORT).show();
-            pie4View.setNeedHighlight(true);
-            pie.invalidate();
+            pie.select(pie.indexOfChild(pie4));
             animation(pie4);
 
         }else if (id == R.id.pie5){
 
             Toast.makeText(getApplicationContext(), "" + pie5View.getPercentage(), Toast.LENGTH_SHORT).show();
-            pie5View.setNeedHighlight(true);
-            pie.invalidate();
+            pie.select(pie.indexOfChild(pie5));
             animation(pie5);
 
         }
     }
 
     private void animation(View view){
-        AnimationSet animSet = new AnimationSet(true);
-        animSet.setInterpolator(new DecelerateInterpolator());
-        animSet.setFillAfter(true);
-        animSet.setFillEnabled(true);
         CircleLayout.LayoutParams params = pie.layoutParams(view);
         Log.d("angle", String.valueOf(params.startAngle) + "  >>> " + String.valueOf(params.endAngle));
-        int start = (int) ((params.endAngle + params.startAngle) / 2);
-        pie.animate().rotation(180 - start);
+        pie.rotateToSlice(pie.indexOfChild(view), true);
     }
 
     private void defaultHighLight(){
@@ -159,5 +149,12 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         pie3.setTag(pie3View);
         pie4.setTag(pie4View);
         pie5.setTag(pie5View);
+
+        // Decoded downsampled to each wedge and painted with a shader by CircleLayout
+        pie1View.setImageUri("drawable://" + R.drawable.a);
+        pie2View.setImageUri("drawable://" + R.drawable.b);
+        pie3View.setImageUri("drawable://" + R.drawable.c);
+        pie4View.setImageUri("drawable://" + R.drawable.d);
+        pie5View.setImageUri("drawable://" + R.drawable.e);
     }
 }
@@ -0,0 +1,39 @@
+package com.luantc.test;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+
+import com.nostra13.universalimageloader.core.DisplayImageOptions;
+import com.nostra13.universalimageloader.core.ImageLoader;
+import com.nostra13.universalimageloader.core.ImageLoaderConfiguration;
+import com.nostra13.universalimageloader.core.assist.ImageScaleType;
+import com.nostra13.universalimageloader.core.assist.ImageSize;
+
+/**
+ * Loads slice images through universal-image-loader, so the sample's slices
+ * can use any URI it understands, with its disk cache for remote images.
+ */
+public class UilSliceImageDecoder implements SliceImageCache.Decoder {
+
+    private final DisplayImageOptions mOptions = new DisplayImageOptions.Builder()
+            // Downsampled images are cached by SliceImageCache, the loader's own cache would hold them twice
+            .cacheInMemory(false)
+            .cacheOnDisk(true)
+            .considerExifParams(true)
+            .imageScaleType(ImageScaleType.EXACTLY)
+            .build();
+
+    public UilSliceImageDecoder(Context context) {
+        final ImageLoader loader = ImageLoader.getInstance();
+        if (!loader.isInited()) {
+            loader.init(ImageLoaderConfiguration.createDefault(context.getApplicationContext()));
+        }
+    }
+
+    @Override
+    public Bitmap decode(String uri, int width, int height) {
+        // Blocking is fine, SliceImageCache calls this on its own workers.
+        // loadImage() would cancel a load of the same URI at another size.
+        return ImageLoader.getInstance().loadImageSync(uri, new ImageSize(width, height), mOptions);
+    }
+}
@@ -0,0 +1,11 @@
+# Applied to every app that depends on this library.
+
+# ChartAnimator drives its phases through ObjectAnimator, which looks the
+# setters up by name
+-keepclassmembers class com.luantc.test.animation.ChartAnimator {
+    public void setPhaseX(float);
+    public void setPhaseY(float);
+    public float getPhaseX();
+    public float getPhaseY();
+}
+
@@ -0,0 +1,69 @@
+package com.luantc.test;
+
+import android.content.Context;
+import android.os.Debug;
+import android.test.InstrumentationTestCase;
+import android.util.Log;
+import android.view.LayoutInflater;
+
+/**
+ * Inflation time and heap per instance of a LAYOUT_NORMAL layout with three
+ * children, which should cost about what a plain ViewGroup does: none of
+ * the pie layers or Paints are allocated. Results are logged under
+ * {@link #TAG}.
+ */
+public class NormalInflateBenchmark extends InstrumentationTestCase {
+
+    private static final String TAG = "NormalInflateBenchmark";
+
+    private static final int INSTANCES = 200;
+
+    public void testInflateNormal() throws Exception {
+        final Context context = getInstrumentation().getContext();
+        final CircleLayout[] layouts = new CircleLayout[INSTANCES];
+        final long[] elapsed = new long[1];
+        final long[] javaHeap = new long[1];
+        final long[] nativeHeap = new long[1];
+
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final LayoutInflater inflater = LayoutInflater.from(context);
+
+                // Warms up the inflater and class loading
+                for (int i = 0; i < 10; i++) {
+                    inflater.inflate(com.luantc.test.circlelayout.test.R.layout.benchmark_normal, null);
+                }
+
+                final long javaBefore = usedJavaHeap();
+                final long nativeBefore = Debug.getNativeHeapAllocatedSize();
+
+                final long start = System.nanoTime();
+                for (int i = 0; i < INSTANCES; i++) {
+                    layouts[i] = (CircleLayout) inflater.inflate(
+                            com.luantc.test.circlelayout.test.R.layout.benchmark_normal, null);
+                }
+                elapsed[0] = System.nanoTime() - start;
+
+                javaHeap[0] = usedJavaHeap() - javaBefore;
+                nativeHeap[0] = Debug.getNativeHeapAllocatedSize() - nativeBefore;
+            }
+        });
+
+        for (CircleLayout layout : layouts) {
+            assertEquals(CircleLayout.LAYOUT_NORMAL, layout.getLayoutMode());
+            assertFalse(layout.hasPaints());
+        }
+
+        Log.i(TAG, INSTANCES + " instances: " + String.format("%.3f", elapsed[0] / 1e6 / INSTANCES)
+                + " ms, " + javaHeap[0] / INSTANCES + " bytes Java heap, "
+                + nativeHeap[0] / INSTANCES + " bytes native heap per instance");
+    }
+
+    private static long usedJavaHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,140 @@
+package com.luantc.test;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.Build;
+import android.test.InstrumentationTestCase;
+import android.util.Log;
+import android.view.View;
+
+/**
+ * Frame times of a pie whose children are expensive to draw, with static
+ * content, which is replayed from its recording, and with every child
+ * invalidated each frame, which draws it again. Results are logged under
+ * {@link #TAG}; the assertions check that static children are drawn once
+ * whatever the number of frames.
+ */
+public class SliceContentBenchmark extends InstrumentationTestCase {
+
+    private static final String TAG = "SliceContentBenchmark";
+
+    private static final int SIZE = 720;
+    private static final int SLICES = 8;
+    private static final int FRAMES = 60;
+
+    private CircleLayout mLayout;
+    private HeavyView[] mChildren;
+    private Canvas mCanvas;
+
+    public void testHeavyChildren() throws Exception {
+        if (Build.VERSION.SDK_INT < 21) {
+            // Older releases draw the children every frame, there is nothing to compare
+            return;
+        }
+
+        final double[] steady = new double[1];
+        final double[] invalidated = new double[1];
+
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                setUpLayout(getInstrumentation().getTargetContext());
+
+                // The first frame records every child
+                mLayout.draw(mCanvas);
+
+                steady[0] = measure(false);
+                for (HeavyView child : mChildren) {
+                    assertEquals("static children are replayed", 1, child.draws);
+                }
+
+                invalidated[0] = measure(true);
+                for (HeavyView child : mChildren) {
+                    assertEquals("invalidated children are drawn again", 1 + FRAMES, child.draws);
+                }
+            }
+        });
+
+        Log.i(TAG, SLICES + " heavy slices: static " + format(steady[0])
+                + " ms/frame, invalidated " + format(invalidated[0]) + " ms/frame");
+    }
+
+    private void setUpLayout(Context context) {
+        mLayout = new CircleLayout(context);
+        mLayout.setLayoutMode(CircleLayout.LAYOUT_PIE);
+
+        mChildren = new HeavyView[SLICES];
+        for (int i = 0; i < SLICES; i++) {
+            mChildren[i] = new HeavyView(context);
+            mChildren[i].setBackgroundColor(Color.HSVToColor(new float[]{360f * i / SLICES, 0.6f, 0.9f}));
+            mChildren[i].setTag(new ViewModel(100f / SLICES, false));
+            mLayout.addView(mChildren[i], new CircleLayout.LayoutParams(SIZE, SIZE));
+        }
+
+        final int spec = View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY);
+        mLayout.measure(spec, spec);
+        mLayout.layout(0, 0, SIZE, SIZE);
+
+        mCanvas = new Canvas(Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888));
+    }
+
+    /**
+     * @return average milliseconds per frame
+     */
+    private double measure(boolean invalidateChildren) {
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < FRAMES; i++) {
+            if (invalidateChildren) {
+                for (HeavyView child : mChildren) {
+                    child.invalidate();
+                }
+            }
+            mLayout.draw(mCanvas);
+        }
+
+        return (System.nanoTime() - start) / 1e6 / FRAMES;
+    }
+
+    private static String format(double millis) {
+        return String.format("%.3f", millis);
+    }
+
+    /**
+     * Stands in for a slice with a deep or costly view hierarchy: a few
+     * thousand primitives per draw.
+     */
+    private static class HeavyView extends View {
+
+        private static final int LINES = 2000;
+
+        private final Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+        int draws;
+
+        HeavyView(Context context) {
+            super(context);
+            mPaint.setColor(Color.DKGRAY);
+            mPaint.setTextSize(24f);
+        }
+
+        @Override
+        protected void onDraw(Canvas canvas) {
+            draws++;
+
+            final int width = getWidth();
+            final int height = getHeight();
+
+            for (int i = 0; i < LINES; i++) {
+                final float t = i / (float) LINES;
+                canvas.drawLine(t * width, 0f, width - t * width, height, mPaint);
+            }
+            for (int i = 0; i < 50; i++) {
+                canvas.drawText("Slice content " + i, 10f, 30f * i, mPaint);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.luantc.test;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Build;
+import android.os.SystemClock;
+import android.test.InstrumentationTestCase;
+import android.util.Log;
+import android.view.View;
+import android.widget.TextView;
+
+/**
+ * Frame times of a static pie drawn synchronously and from the tiles of
+ * {@link CircleLayout#setParallelSliceRendering}, at several slice counts.
+ * Results are logged under {@link #TAG}; the assertions only check that
+ * every child was drawn once, whichever path its slice took.
+ */
+public class SliceTileBenchmark extends InstrumentationTestCase {
+
+    private static final String TAG = "SliceTileBenchmark";
+
+    private static final int SIZE = 720;
+    private static final int FRAMES = 60;
+    /** long enough for every slice to stay unchanged past the tile threshold and be masked */
+    private static final long WARM_UP_MILLIS = 1000L;
+
+    private CircleLayout mLayout;
+    private Canvas mCanvas;
+
+    public void testSlices8() throws Exception {
+        run(8);
+    }
+
+    public void testSlices64() throws Exception {
+        run(64);
+    }
+
+    public void testSlices256() throws Exception {
+        run(256);
+    }
+
+    private void run(final int slices) throws Exception {
+        if (Build.VERSION.SDK_INT < 21) {
+            // Tiles need View.isDirty()
+            return;
+        }
+
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                setUpLayout(getInstrumentation().getTargetContext(), slices);
+            }
+        });
+
+        final double synchronous = measure(false);
+        final double tiled = measure(true);
+
+        Log.i(TAG, slices + " slices: synchronous " + format(synchronous)
+                + " ms/frame, tiled " + format(tiled) + " ms/frame");
+
+        for (int i = 0; i < slices; i++) {
+            assertEquals("draws of slice " + i, 1, ((CountingView) mLayout.getChildAt(i)).draws);
+        }
+    }
+
+    private void setUpLayout(Context context, int slices) {
+        mLayout = new CircleLayout(context);
+        mLayout.setLayoutMode(CircleLayout.LAYOUT_PIE);
+
+        for (int i = 0; i < slices; i++) {
+            final CountingView child = new CountingView(context);
+            child.setText("Slice " + i);
+            child.setBackgroundColor(Color.HSVToColor(new float[]{360f * i / slices, 0.6f, 0.9f}));
+            child.setTag(new ViewModel(100f / slices, false));
+            mLayout.addView(child, new CircleLayout.LayoutParams(SIZE, SIZE));
+        }
+
+        final int spec = View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY);
+        mLayout.measure(spec, spec);
+        mLayout.layout(0, 0, SIZE, SIZE);
+
+        mCanvas = new Canvas(Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888));
+    }
+
+    /**
+     * @return average milliseconds per frame after the warm-up
+     */
+    private double measure(final boolean tiled) {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mLayout.setParallelSliceRendering(tiled);
+            }
+        });
+
+        // Lets the finished tiles be handed over between frames
+        final long warmUpEnd = SystemClock.uptimeMillis() + WARM_UP_MILLIS;
+        while (SystemClock.uptimeMillis() < warmUpEnd) {
+            drawFrame();
+            getInstrumentation().waitForIdleSync();
+            SystemClock.sleep(16);
+        }
+
+        final long[] elapsed = new long[1];
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final long start = System.nanoTime();
+                for (int i = 0; i < FRAMES; i++) {
+                    mLayout.draw(mCanvas);
+                }
+                elapsed[0] = System.nanoTime() - start;
+            }
+        });
+
+        return elapsed[0] / 1e6 / FRAMES;
+    }
+
+    private void drawFrame() {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mLayout.draw(mCanvas);
+            }
+        });
+    }
+
+    private static String format(double millis) {
+        return String.format("%.3f", millis);
+    }
+
+    private static class CountingView extends TextView {
+
+        int draws;
+
+        CountingView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void draw(Canvas canvas) {
+            draws++;
+            super.draw(canvas);
+        }
+    }
+}
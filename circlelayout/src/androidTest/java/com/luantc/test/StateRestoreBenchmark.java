@@ -0,0 +1,81 @@
+package com.luantc.test;
+
+import android.content.Context;
+import android.test.InstrumentationTestCase;
+import android.util.Log;
+import android.view.View;
+
+import com.luantc.test.core.PieState;
+
+/**
+ * Encoded size and restore time of a 1,000 slice chart: {@link PieState}
+ * decoding alone, and {@link CircleLayout#restoreState(byte[])} including
+ * it. Results are logged under {@link #TAG}; the assertions check that the
+ * state round-trips.
+ */
+public class StateRestoreBenchmark extends InstrumentationTestCase {
+
+    private static final String TAG = "StateRestoreBenchmark";
+
+    private static final int SIZE = 720;
+    private static final int SLICES = 1000;
+    private static final int RUNS = 100;
+
+    private CircleLayout mLayout;
+
+    public void testRestore1000() throws Exception {
+        final byte[][] data = new byte[1][];
+        final double[] decode = new double[1];
+        final double[] restore = new double[1];
+
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                setUpLayout(getInstrumentation().getTargetContext());
+                data[0] = mLayout.saveState();
+
+                // Warms up both paths before timing them
+                for (int i = 0; i < 10; i++) {
+                    PieState.decode(data[0]);
+                    assertTrue(mLayout.restoreState(data[0]));
+                }
+
+                long start = System.nanoTime();
+                for (int i = 0; i < RUNS; i++) {
+                    PieState.decode(data[0]);
+                }
+                decode[0] = (System.nanoTime() - start) / 1e6 / RUNS;
+
+                start = System.nanoTime();
+                for (int i = 0; i < RUNS; i++) {
+                    mLayout.restoreState(data[0]);
+                }
+                restore[0] = (System.nanoTime() - start) / 1e6 / RUNS;
+            }
+        });
+
+        assertEquals(SLICES, PieState.decode(data[0]).getCount());
+
+        Log.i(TAG, SLICES + " slices: " + data[0].length + " bytes, decode " + format(decode[0])
+                + " ms, restoreState " + format(restore[0]) + " ms");
+    }
+
+    private void setUpLayout(Context context) {
+        mLayout = new CircleLayout(context);
+        mLayout.setLayoutMode(CircleLayout.LAYOUT_PIE);
+
+        for (int i = 0; i < SLICES; i++) {
+            final View child = new View(context);
+            child.setTag(new ViewModel(100f / SLICES, i % 7 == 0));
+            mLayout.addView(child, new CircleLayout.LayoutParams(SIZE, SIZE));
+        }
+
+        final int spec = View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY);
+        mLayout.measure(spec, spec);
+        mLayout.layout(0, 0, SIZE, SIZE);
+    }
+
+    private static String format(double millis) {
+        return String.format("%.3f", millis);
+    }
+}
@@ -0,0 +1,66 @@
+package com.luantc.test;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+/**
+ * A few mutable ARGB_8888 bitmaps kept for reuse by exact size, shared by
+ * {@link PieBitmapRenderer} and {@link SliceTileCompositor}. Safe to use
+ * from any thread.
+ */
+class BitmapPool {
+
+    private final int mMaxSize;
+    private final ArrayDeque<Bitmap> mBitmaps = new ArrayDeque<>();
+
+    BitmapPool(int maxSize) {
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * @return a cleared bitmap of the size, from the pool if it has one
+     */
+    Bitmap obtain(int width, int height) {
+        synchronized (mBitmaps) {
+            final Iterator<Bitmap> it = mBitmaps.iterator();
+
+            while (it.hasNext()) {
+                final Bitmap bitmap = it.next();
+
+                if (bitmap.getWidth() == width && bitmap.getHeight() == height) {
+                    it.remove();
+                    bitmap.eraseColor(Color.TRANSPARENT);
+                    return bitmap;
+                }
+            }
+        }
+
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    /**
+     * Hands a bitmap back. It must no longer be drawn or drawn into.
+     */
+    void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) {
+            return;
+        }
+
+        synchronized (mBitmaps) {
+            if (mBitmaps.size() >= mMaxSize) {
+                // Drop the oldest so the pool follows the sizes currently in use
+                mBitmaps.pollFirst();
+            }
+            mBitmaps.addLast(bitmap);
+        }
+    }
+
+    void clear() {
+        synchronized (mBitmaps) {
+            mBitmaps.clear();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.luantc.test;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+import com.luantc.test.core.PieCanvas;
+
+/**
+ * {@link PieCanvas} over an android.graphics.Canvas, used by the poster
+ * exporter and by the sunburst mode of {@link CircleLayout}.
+ */
+class CanvasPieCanvas implements PieCanvas {
+
+    private Canvas mCanvas;
+    private final Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path mPath = new Path();
+    private final RectF mOval = new RectF();
+
+    CanvasPieCanvas(Canvas canvas) {
+        mCanvas = canvas;
+        mPaint.setStrokeJoin(Paint.Join.ROUND);
+        mPaint.setStrokeCap(Paint.Cap.ROUND);
+    }
+
+    /**
+     * Retargets the wrapper, e.g. to the canvas of the current draw pass.
+     */
+    void setCanvas(Canvas canvas) {
+        mCanvas = canvas;
+    }
+
+    @Override
+    public void fillWedge(float centerX, float centerY, float radius, float innerRadius,
+                          float startAngle, float sweepAngle, int color) {
+        mPaint.setStyle(Paint.Style.FILL);
+        mPaint.setColor(color);
+        mCanvas.drawPath(wedge(centerX, centerY, radius, innerRadius, startAngle, sweepAngle), mPaint);
+    }
+
+    @Override
+    public void strokeWedge(float centerX, float centerY, float radius, float innerRadius,
+                            float startAngle, float sweepAngle, float strokeWidth, int color) {
+        mPaint.setStyle(Paint.Style.STROKE);
+        mPaint.setStrokeWidth(strokeWidth);
+        mPaint.setColor(color);
+        mCanvas.drawPath(wedge(centerX, centerY, radius, innerRadius, startAngle, sweepAngle), mPaint);
+    }
+
+    @Override
+    public void drawLine(float x0, float y0, float x1, float y1, float strokeWidth, int color) {
+        mPaint.setStyle(Paint.Style.STROKE);
+        mPaint.setStrokeWidth(strokeWidth);
+        mPaint.setColor(color);
+        mCanvas.drawLine(x0, y0, x1, y1, mPaint);
+    }
+
+    @Override
+    public void fillCircle(float centerX, float centerY, float radius, int color) {
+        mPaint.setStyle(Paint.Style.FILL);
+        mPaint.setColor(color);
+        mCanvas.drawCircle(centerX, centerY, radius, mPaint);
+    }
+
+    private Path wedge(float cx, float cy, float radius, float innerRadius,
+                       float startAngle, float sweepAngle) {
+        mPath.reset();
+
+        if (sweepAngle >= 360f) {
+            mPath.setFillType(Path.FillType.EVEN_ODD);
+            mPath.addCircle(cx, cy, radius, Path.Direction.CW);
+            if (innerRadius > 0f) {
+                mPath.addCircle(cx, cy, innerRadius, Path.Direction.CW);
+            }
+            return mPath;
+        }
+
+        mPath.setFillType(Path.FillType.WINDING);
+        mOval.set(cx - radius, cy - radius, cx + radius, cy + radius);
+
+        if (innerRadius > 0f) {
+            mPath.arcTo(mOval, startAngle, sweepAngle, true);
+            mOval.set(cx - innerRadius, cy - innerRadius, cx + innerRadius, cy + innerRadius);
+            mPath.arcTo(mOval, startAngle + sweepAngle, -sweepAngle);
+        } else {
+            mPath.moveTo(cx, cy);
+            mPath.arcTo(mOval, startAngle, sweepAngle);
+        }
+        mPath.close();
+
+        return mPath;
+    }
+}
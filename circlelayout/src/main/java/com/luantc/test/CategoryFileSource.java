@@ -0,0 +1,100 @@
+package com.luantc.test;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import android.os.Process;
+
+import com.luantc.test.core.CategoryAggregator;
+
+/**
+ * Feeds a {@link CircleLayout} from a binary category file. The file is summed
+ * off the UI thread by {@link CategoryAggregator}, in parallel ranges once it
+ * is large enough to benefit, and only the per-slice totals are handed to the
+ * chart through {@link SliceDataPublisher#setAll(float[])}.
+ */
+public class CategoryFileSource {
+
+    /** below this size a single pass is faster than splitting the file */
+    private static final long PARALLEL_THRESHOLD_BYTES = 4L * 1024 * 1024;
+
+    /** runs one load at a time and waits on its ranges */
+    private static ExecutorService sLoader;
+    /** sums the ranges of a load */
+    private static ExecutorService sWorkers;
+
+    private final File mFile;
+    private final CategoryAggregator mFormat;
+
+    /**
+     * @param format record layout, e.g. {@link CategoryAggregator#DEFAULT}
+     */
+    public CategoryFileSource(File file, CategoryAggregator format) {
+        mFile = file;
+        mFormat = format;
+    }
+
+    private static synchronized ExecutorService loader() {
+        if (sLoader == null) {
+            sLoader = newExecutor(1);
+        }
+        return sLoader;
+    }
+
+    private static synchronized ExecutorService workers() {
+        if (sWorkers == null) {
+            sWorkers = newExecutor(Runtime.getRuntime().availableProcessors());
+        }
+        return sWorkers;
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        r.run();
+                    }
+                }, "PieCategories");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Aggregates the file in the background and publishes the totals. The
+     * publisher's slice count is the number of categories; records of other
+     * categories are ignored.
+     *
+     * @return the totals, also useful to check for I/O errors
+     */
+    public Future<float[]> loadInto(final SliceDataPublisher publisher) {
+        return loader().submit(new Callable<float[]>() {
+            @Override
+            public float[] call() throws Exception {
+                final int categories = publisher.getSliceCount();
+                final int cores = Runtime.getRuntime().availableProcessors();
+
+                final float[] totals = cores > 1 && mFile.length() >= PARALLEL_THRESHOLD_BYTES
+                        ? mFormat.aggregate(mFile, categories, workers(), cores)
+                        : mFormat.aggregate(mFile, categories);
+
+                publisher.setAll(totals);
+                return totals;
+            }
+        });
+    }
+}
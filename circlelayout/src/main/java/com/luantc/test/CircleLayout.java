@@ -0,0 +1,3192 @@
+package com.luantc.test;
+
+/**
+ * Created by luantruong on 6/30/16.
+ */
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.TypedArray;
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.CornerPathEffect;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Picture;
+import android.graphics.PointF;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.Xfermode;
+import android.graphics.Region.Op;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.Process;
+import android.os.SystemClock;
+import android.support.annotation.VisibleForTesting;
+import android.text.TextPaint;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.view.animation.DecelerateInterpolator;
+import android.widget.LinearLayout;
+
+import com.luantc.test.animation.ChartAnimator;
+import com.luantc.test.animation.Easing;
+import com.luantc.test.animation.EasingFunction;
+import com.luantc.test.circlelayout.R;
+import com.luantc.test.core.PieGeometry;
+import com.luantc.test.core.PieLabelLayout;
+import com.luantc.test.core.PieState;
+import com.luantc.test.core.PieStyle;
+import com.luantc.test.core.SunburstGeometry;
+import com.luantc.test.core.SunburstNode;
+import com.luantc.test.core.SunburstPainter;
+import com.luantc.test.core.SvgPieCanvas;
+
+public class CircleLayout extends ViewGroup {
+
+    public static final int LAYOUT_NORMAL = 1;
+    public static final int LAYOUT_PIE = 2;
+    /** concentric rings drawn from data set with setSunburstData or setRingData, no child views */
+    public static final int LAYOUT_SUNBURST = 3;
+
+    private int mLayoutMode = LAYOUT_NORMAL;
+
+    private Drawable mInnerCircle;
+
+    private float mAngleOffset;
+    private float mAngleRange;
+
+    private float mDividerWidth;
+    private int mInnerRadius;
+
+    @VisibleForTesting
+    PieRenderer mRenderer;
+
+    private RectF mBounds = new RectF();
+
+    @VisibleForTesting
+    Bitmap mDst;
+    @VisibleForTesting
+    Bitmap mSrc;
+    private Canvas mSrcCanvas;
+    private Canvas mDstCanvas;
+
+    private View mMotionTarget;
+
+    @VisibleForTesting
+    Bitmap mDrawingCache;
+    private Canvas mCachedCanvas;
+    private Set<View> mDirtyViews = new HashSet<View>();
+    private boolean mCached = false;
+    ChartAnimator mAnimator;
+    private boolean isAnimationOnly = false;
+    private boolean isAnimationView = true;
+    private float sweepAngle;
+    private List<Float> mSweeps;
+
+    private static final float SWEEP_INC = 100f;
+
+    /**
+     * holds the raw version of the current rotation angle of the chart
+     */
+    private float mRawRotationAngle = 0f;
+
+    /** rotation the children were last laid out at */
+    private float mLayoutRotation;
+    /** rotation mDrawingCache was composited at while the chart is in motion */
+    private float mRasterRotation;
+    /** mDrawingCache holds the motion raster; cleared whenever the buffers are reallocated */
+    private boolean mMotionRasterReady;
+
+    private static final float FLING_FRICTION = 2.5f;
+    private static final float MIN_FLING_DEGREES = 15f;
+    private static final long SNAP_DURATION = 300L;
+
+    private boolean mRotationEnabled;
+    private boolean mSnapToSlice = true;
+    private float mSnapAngle = 270f;
+
+    private boolean mInMotion;
+    private boolean mDragging;
+    private float mTouchStartX;
+    private float mTouchStartY;
+    private float mLastTouchAngle;
+    private VelocityTracker mVelocityTracker;
+    private int mTouchSlop;
+    private int mMinFlingVelocity;
+
+    private float mFlingVelocity;
+    private long mLastFlingTime;
+    private ValueAnimator mSnapAnimator;
+
+    private Paint mRasterPaint;
+
+    private static final int SELECTION_DURATION = 250;
+
+    private int mSelectedIndex = -1;
+    private float mExplodeOffset = 7f;
+    private boolean mSelectionAnimating;
+    /** mDrawingCache holds the unselected slices and mDst the selected wedge */
+    private boolean mSelectionLayersReady;
+
+    private final Runnable mFlingStep = new Runnable() {
+        @Override
+        public void run() {
+            stepFling();
+        }
+    };
+
+    private final ComponentCallbacks2 mMemoryCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            // While shown the buffers are needed for the next frame anyway
+            if (level >= TRIM_MEMORY_UI_HIDDEN
+                    || (level >= TRIM_MEMORY_RUNNING_LOW && !isShown())) {
+                trimBuffers();
+            }
+        }
+
+        @Override
+        public void onLowMemory() {
+            trimBuffers();
+        }
+
+        @Override
+        public void onConfigurationChanged(Configuration newConfig) {
+        }
+    };
+
+    /** background as drawn under the slices, recorded once per layout */
+    private Picture mBackgroundPicture;
+    /** dividers, inner circle and labels drawn over the slices */
+    private Picture mDecorationPicture;
+    /** wedges are rings around a transparent center instead of covered by the inner circle */
+    private boolean mDonutHole;
+    private final Path mHolePath = new Path();
+
+    /** bounding box of a wedge, for sizing its image */
+    private final RectF mImageBounds = new RectF();
+
+    /** wedge bounding boxes are rounded up to this many pixels for measuring children */
+    private static final int MEASURE_STEP = 16;
+    private final RectF mMeasureBounds = new RectF();
+    private final RectF mWedgeBounds = new RectF();
+
+    private static final RectF UNIT_CIRCLE = new RectF(-1f, -1f, 1f, 1f);
+
+    /** partial arcs are fitted to the view by their own bounding box */
+    private boolean mGauge;
+    /** bounding box of the arc on the unit circle */
+    private final RectF mUnitArc = new RectF();
+
+    /** part of the view the layers cover, in view coordinates */
+    private final Rect mBufferRect = new Rect();
+    private int mBufferLeft;
+    private int mBufferTop;
+
+    /** x0, y0, x1, y1 of each divider for one drawLines call */
+    private float[] mDividerLines = new float[0];
+
+    /** set while animation frames are held back because the chart cannot be seen */
+    private boolean mFramesSuspended;
+    private boolean mWindowVisible = true;
+    private final Rect mVisibleRect = new Rect();
+    private ViewTreeObserver mSuspendObserver;
+
+    private final ViewTreeObserver.OnPreDrawListener mResumeOnPreDraw =
+            new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            resumeFrames();
+            return true;
+        }
+    };
+
+    private float mPadding = 7.5f;
+    Context mContext;
+
+    private SliceDataPublisher mPublisher;
+    private PieSnapshot mSnapshot;
+    private PrecomputedPie mPrecomputed;
+
+    private Object mRenderCacheKey;
+    /** last key counted in the render cache's hit rate, so each render counts once */
+    private PieRenderCache.Key mCountedKey;
+
+    private SliceTileCompositor mTileCompositor;
+
+    private PieDiskCache mDiskCache;
+    /** key last looked up on disk, and the raster found for it until it is shown */
+    private PieRenderCache.Key mDiskKey;
+    private boolean mDiskPending;
+    private Bitmap mDiskBitmap;
+    /** false while the render cache key depends on object identities, which change across runs */
+    private boolean mRenderKeyPersistent;
+
+    /** resources the inner circle and background were loaded from, 0 if unknown */
+    private int mInnerCircleRes;
+    private int mBackgroundRes;
+
+    private final PieDiskCache.Callback mDiskCallback = new PieDiskCache.Callback() {
+        @Override
+        public void onLoaded(PieRenderCache.Key key, Bitmap bitmap) {
+            if (!key.equals(mDiskKey)) {
+                return;
+            }
+            mDiskPending = false;
+            mDiskBitmap = bitmap;
+            invalidate();
+        }
+    };
+
+    private final long mCreatedAt = SystemClock.uptimeMillis();
+    private long mTimeToFirstChart = -1L;
+
+    private PieGeometry mGeometry;
+
+    /** vertical space between two outside labels, in pixels */
+    private static final float LABEL_GAP = 2f;
+
+    private CharSequence[] mLabels;
+    private boolean mOutsideLabels;
+    private float mLabelTextSize;
+    private int mLabelColor = Color.DKGRAY;
+    private int mLeaderColor = Color.GRAY;
+    private float mLeaderWidth;
+    /** created on first use, LAYOUT_NORMAL never needs them */
+    private TextPaint mLabelPaint;
+    private Paint mLeaderPaint;
+    private float mLabelTextWidth;
+    private float mLeaderLength;
+    /** how far the pie is shrunk on each side to make room for the labels */
+    private float mLabelSpace;
+    private PieLabelLayout mLabelLayout;
+
+    /** wedges thinner than this on their outer edge are not laid out */
+    private static final float SUNBURST_MIN_ARC_PX = 0.5f;
+
+    private SunburstNode mSunburstRoot;
+    private float[][] mRingValues;
+    private int mMaxRings = 6;
+    private int[] mSunburstColors;
+    private SunburstGeometry mSunburst;
+    private PieStyle mSunburstStyle;
+    private CanvasPieCanvas mSunburstCanvas;
+    private final int[] mSunburstHit = new int[2];
+    private int mSunburstHighlightRing = -1;
+    private int mSunburstHighlightIndex = -1;
+    private OnSunburstClickListener mSunburstClickListener;
+
+    /**
+     * Receives taps on the wedges of {@link #LAYOUT_SUNBURST}.
+     */
+    public interface OnSunburstClickListener {
+        /**
+         * @param ring 0 for the innermost ring
+         * @param index position of the wedge within the laid out ring
+         * @param node the tree node, or null for data set with setRingData
+         */
+        void onNodeClick(int ring, int index, SunburstNode node);
+    }
+
+    public CircleLayout(Context context) {
+        this(context, null);
+        mContext = context;
+    }
+
+    @SuppressLint("NewApi")
+    public CircleLayout(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        mContext = context;
+        mRenderer = new PieRenderer();
+
+        TypedArray a = context.getTheme().obtainStyledAttributes(attrs, R.styleable.CircleLayout, 0, 0);
+
+        try {
+            int dividerColor = a.getColor(R.styleable.CircleLayout_sliceDivider, android.R.color.darker_gray);
+            mInnerCircle = a.getDrawable(R.styleable.CircleLayout_innerCircle);
+            mInnerCircleRes = a.getResourceId(R.styleable.CircleLayout_innerCircle, 0);
+
+            if (mInnerCircle instanceof ColorDrawable) {
+                int innerColor = a.getColor(R.styleable.CircleLayout_innerCircle, android.R.color.white);
+                mRenderer.setInnerCircleColor(innerColor);
+            }
+
+            mRenderer.setDividerColor(dividerColor);
+
+            mAngleOffset = a.getFloat(R.styleable.CircleLayout_angleOffset, 0f);
+            mAngleRange = a.getFloat(R.styleable.CircleLayout_angleRange, 360f);
+            mDividerWidth = a.getDimensionPixelSize(R.styleable.CircleLayout_dividerWidth, 1);
+            mInnerRadius = a.getDimensionPixelSize(R.styleable.CircleLayout_innerRadius, 80);
+
+            mLayoutMode = a.getColor(R.styleable.CircleLayout_layoutMode, LAYOUT_NORMAL);
+        } finally {
+            a.recycle();
+        }
+
+        // The background is set by View itself, only its resource is needed for the render cache key
+        final TypedArray background = context.getTheme().obtainStyledAttributes(attrs,
+                new int[]{android.R.attr.background}, 0, 0);
+        try {
+            mBackgroundRes = background.getResourceId(0, 0);
+        } finally {
+            background.recycle();
+        }
+
+        mRenderer.setDividerWidth(mDividerWidth);
+
+        final ViewConfiguration configuration = ViewConfiguration.get(context);
+        mTouchSlop = configuration.getScaledTouchSlop();
+        mMinFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+
+        final float density = getResources().getDisplayMetrics().density;
+        mLeaderLength = 16f * density;
+        mLabelTextSize = 12f * density;
+        mLeaderWidth = density;
+
+        updateLayerType();
+    }
+
+    /**
+     * Turns off hardware acceleration for the modes that draw the chart
+     * themselves; LAYOUT_NORMAL only draws its children.
+     */
+    @SuppressLint("NewApi")
+    private void updateLayerType() {
+        if (Build.VERSION.SDK_INT >= 11) {
+            setLayerType(mLayoutMode == LAYOUT_NORMAL ? LAYER_TYPE_NONE : LAYER_TYPE_SOFTWARE, null);
+        }
+    }
+
+    public void setAnimationOnly(boolean isAnimationOnly) {
+        this.isAnimationOnly = isAnimationOnly;
+    }
+
+    /**
+     * Pie buffers are allocated on the first LAYOUT_PIE draw. Switching to
+     * LAYOUT_NORMAL releases them, along with everything else only the pie
+     * draws with.
+     */
+    public void setLayoutMode(int mode) {
+        if (mode == mLayoutMode) {
+            return;
+        }
+        mLayoutMode = mode;
+
+        if (mode == LAYOUT_NORMAL) {
+            stopRotation(true);
+            mSelectionAnimating = false;
+            releaseBuffers();
+            invalidateDecorations();
+            mSunburstCanvas = null;
+        }
+        updateLayerType();
+
+        requestLayout();
+        invalidate();
+    }
+
+    public int getLayoutMode() {
+        return mLayoutMode;
+    }
+
+    public int getRadius() {
+        final int width = getWidth();
+        final int height = getHeight();
+
+        final float minDimen = (width > height ? height : width) - 2f * getLabelSpace(width, height);
+
+        float radius = (minDimen - mInnerRadius) / 2f;
+
+        return (int) radius;
+    }
+
+    public void getCenter(PointF p) {
+        p.set(getPieCenterX(), getPieCenterY());
+    }
+
+    /**
+     * Fits a partial arc, e.g. a semicircle with an angle range of 180, to
+     * the view by the arc's own bounding box instead of the full circle's:
+     * the pie grows to fill the view, a wrap_content height or width is cut
+     * to the arc, and the offscreen layers only cover the arc. The box
+     * follows the angle offset, so the chart does not rotate, and outside
+     * labels are not shown. No effect for a full angle range.
+     */
+    public void setGauge(boolean gauge) {
+        mGauge = gauge;
+        invalidateDecorations();
+        requestLayout();
+        invalidate();
+    }
+
+    public boolean isGauge() {
+        return mGauge;
+    }
+
+    private boolean isGaugeLayout() {
+        return mGauge && mAngleRange < 360f && mLayoutMode == LAYOUT_PIE;
+    }
+
+    /**
+     * The center of the view, unless a gauge moved the pie off it.
+     */
+    private float getPieCenterX() {
+        return isGaugeLayout() ? mBounds.centerX() : getWidth() / 2f;
+    }
+
+    private float getPieCenterY() {
+        return isGaugeLayout() ? mBounds.centerY() : getHeight() / 2f;
+    }
+
+    /**
+     * @return the radius the dividers run to, the slices plus the padding
+     */
+    private float getPieRadius() {
+        if (isGaugeLayout()) {
+            return mBounds.width() / 2f + mPadding;
+        }
+        return Math.min(getWidth(), getHeight()) / 2f - mLabelSpace;
+    }
+
+    public void setAngleOffset(float offset) {
+        mAngleOffset = offset;
+        invalidateDecorations();
+        requestLayout();
+        invalidate();
+    }
+
+    public float getAngleOffset() {
+        return mAngleOffset;
+    }
+
+    /**
+     * Where the first slice starts: the angle offset plus the chart rotation.
+     */
+    private float getLayoutAngleOffset() {
+        return mAngleOffset + mRawRotationAngle;
+    }
+
+    public void setInnerRadius(int radius) {
+        mInnerRadius = radius;
+        mRenderer.setHoleRadius(mDonutHole ? mInnerRadius : 0f);
+        if (mDonutHole && mTileCompositor != null) {
+            mTileCompositor.release();
+        }
+        invalidateDecorations();
+        requestLayout();
+        invalidate();
+    }
+
+    public int getInnerRadius() {
+        return mInnerRadius;
+    }
+
+    public void setInnerCircle(Drawable d) {
+        mInnerCircle = d;
+        mInnerCircleRes = 0;
+        invalidateDecorations();
+        updateInnerCircleColor();
+        requestLayout();
+        invalidate();
+    }
+
+    public void setInnerCircle(int res) {
+        mInnerCircle = getContext().getResources().getDrawable(res);
+        mInnerCircleRes = res;
+        invalidateDecorations();
+        updateInnerCircleColor();
+        requestLayout();
+        invalidate();
+    }
+
+    public void setInnerCircleColor(int color) {
+        mInnerCircle = new ColorDrawable(color);
+        mInnerCircleRes = 0;
+        invalidateDecorations();
+        mRenderer.setInnerCircleColor(color);
+        requestLayout();
+        invalidate();
+    }
+
+    public Drawable getInnerCircle() {
+        return mInnerCircle;
+    }
+
+    /**
+     * Masks every wedge to the ring between the inner radius and the rim, so
+     * no slice pixels are produced in the center and it stays transparent,
+     * e.g. to show the background through it. The inner circle is not drawn
+     * and dividers start at the inner radius.
+     */
+    @SuppressLint("NewApi")
+    public void setDonutHole(boolean enabled) {
+        mDonutHole = enabled;
+        mRenderer.setHoleRadius(enabled ? mInnerRadius : 0f);
+        if (mTileCompositor != null) {
+            mTileCompositor.release();
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    public boolean isDonutHole() {
+        return mDonutHole;
+    }
+
+    private void updateInnerCircleColor() {
+        if (mInnerCircle instanceof ColorDrawable) {
+            mRenderer.setInnerCircleColor(((ColorDrawable) mInnerCircle).getColor());
+        } else {
+            mRenderer.clearInnerCircle();
+        }
+    }
+
+    /**
+     * @return a renderer with this layout's divider and inner circle style,
+     * for drawing the same chart off the UI thread with
+     * {@link PieBitmapRenderer}. Drawable inner circles are not carried over.
+     */
+    public PieRenderer copyRenderer() {
+        return new PieRenderer(mRenderer);
+    }
+
+    /**
+     * Drives slice sizes from a publisher instead of the children's
+     * {@link ViewModel} tags. Updates submitted from any thread are applied
+     * once per frame. The publisher only references the layout while it is
+     * attached to a window, so it may outlive the layout, and stops
+     * publishing while the chart cannot be seen.
+     */
+    public void setDataPublisher(SliceDataPublisher publisher) {
+        if (mPublisher != null) {
+            mPublisher.detach(this);
+        }
+
+        mPublisher = publisher;
+        mSnapshot = null;
+
+        if (publisher != null && getWindowToken() != null && !mFramesSuspended) {
+            publisher.attach(this);
+        }
+
+        requestLayout();
+        invalidate();
+    }
+
+    public SliceDataPublisher getDataPublisher() {
+        return mPublisher;
+    }
+
+    void onSnapshotPublished(PieSnapshot snapshot) {
+        // Nothing to lay out for; reattaching on resume publishes the latest
+        // values. Before the first layout the visible rect is always empty.
+        if ((getWidth() > 0 || !isShown()) && !isChartVisible()) {
+            suspendFrames();
+            return;
+        }
+
+        mSnapshot = snapshot;
+        mPrecomputed = null;
+        requestLayout();
+    }
+
+    /**
+     * @return the parameters a {@link PrecomputedPie} must be created with to
+     * be applied to this layout at the given size
+     */
+    public PrecomputedPie.Params getPieParams(int width, int height) {
+        return new PrecomputedPie.Params(width, height, mInnerRadius, getLayoutAngleOffset(), mAngleRange, mPadding,
+                getLabelSpace(width, height));
+    }
+
+    public PrecomputedPie.Params getPieParams() {
+        return getPieParams(getWidth(), getHeight());
+    }
+
+    /**
+     * Lays the slices out from geometry computed off the UI thread. The pie is
+     * ignored whenever its params or slice count no longer match this layout.
+     */
+    public void setPrecomputedPie(PrecomputedPie pie) {
+        mPrecomputed = pie;
+        requestLayout();
+    }
+
+    public PrecomputedPie getPrecomputedPie() {
+        return mPrecomputed;
+    }
+
+    private boolean isPrecomputedValid(PrecomputedPie pie, int childs, int width, int height, float labelSpace) {
+        // Precomputed pies are always centered
+        return pie != null && pie.getCount() == childs && !isGaugeLayout()
+                && pie.getParams().matches(width, height, mInnerRadius, getLayoutAngleOffset(), mAngleRange, mPadding,
+                labelSpace);
+    }
+
+    private float getSlicePercentage(int index, View child) {
+        final PieSnapshot snapshot = mSnapshot;
+
+        if (snapshot != null && index < snapshot.getCount()) {
+            return snapshot.getPercentage(index);
+        }
+
+        ViewModel model = (ViewModel) child.getTag();
+        return model.getPercentage();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (mLayoutMode == LAYOUT_PIE) {
+            measurePie(widthMeasureSpec, heightMeasureSpec);
+            return;
+        }
+
+        final int count = getChildCount();
+
+        int maxHeight = 0;
+        int maxWidth = 0;
+
+        // Find rightmost and bottommost child
+        for (int i = 0; i < count; i++) {
+            final View child = getChildAt(i);
+            if (child.getVisibility() != GONE) {
+                measureChild(child, widthMeasureSpec, heightMeasureSpec);
+                //maxWidth = Math.max(maxWidth, child.getMeasuredWidth());
+                //maxHeight = Math.max(maxHeight, child.getMeasuredHeight());
+            }
+        }
+
+        // Check against our minimum height and width
+        maxHeight = Math.max(maxHeight, getSuggestedMinimumHeight());
+        maxWidth = Math.max(maxWidth, getSuggestedMinimumWidth());
+
+        int width = resolveSize(maxWidth, widthMeasureSpec);
+        int height = resolveSize(maxHeight, heightMeasureSpec);
+
+        setMeasuredDimension(width, height);
+    }
+
+    /**
+     * A slice only shows through its wedge, so each child is measured as if
+     * the wedge's bounding box were its parent: match_parent fills the box
+     * and wrap_content is limited to it. The box is rounded up to
+     * MEASURE_STEP, so a data change usually passes the same specs again,
+     * and View.measure() returns early for unchanged specs unless the child
+     * asked for a layout.
+     */
+    private void measurePie(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = resolveSize(getSuggestedMinimumWidth(), widthMeasureSpec);
+        int height = resolveSize(getSuggestedMinimumHeight(), heightMeasureSpec);
+
+        if (isGaugeLayout()) {
+            // Cut the free dimension to the arc, e.g. half the width for a semicircle
+            SliceTileCompositor.wedgeBounds(UNIT_CIRCLE, mAngleOffset, mAngleRange, mUnitArc);
+
+            if (MeasureSpec.getMode(heightMeasureSpec) != MeasureSpec.EXACTLY && mUnitArc.width() > 0f) {
+                final float radius = (width - 2f * mPadding) / mUnitArc.width();
+                height = resolveSize(Math.max(getSuggestedMinimumHeight(),
+                        (int) Math.ceil(radius * mUnitArc.height() + 2f * mPadding)), heightMeasureSpec);
+            } else if (MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.EXACTLY && mUnitArc.height() > 0f) {
+                final float radius = (height - 2f * mPadding) / mUnitArc.height();
+                width = resolveSize(Math.max(getSuggestedMinimumWidth(),
+                        (int) Math.ceil(radius * mUnitArc.width() + 2f * mPadding)), widthMeasureSpec);
+            }
+        }
+
+        setMeasuredDimension(width, height);
+
+        final int childs = getChildCount();
+        final float labelSpace = getLabelSpace(width, height);
+        final PrecomputedPie pie = mPrecomputed;
+        final boolean precomputed = isPrecomputedValid(pie, childs, width, height, labelSpace);
+
+        if (precomputed) {
+            mMeasureBounds.set(pie.getBoundsLeft(), pie.getBoundsTop(), pie.getBoundsRight(), pie.getBoundsBottom());
+        } else {
+            pieBounds(width, height, labelSpace, mMeasureBounds);
+        }
+
+        float startAngle = getLayoutAngleOffset();
+
+        for (int i = 0; i < childs; i++) {
+            final View child = getChildAt(i);
+
+            final float endAngle;
+            if (precomputed) {
+                startAngle = pie.getStartAngle(i);
+                endAngle = pie.getEndAngle(i);
+            } else {
+                endAngle = startAngle + mAngleRange * (getSlicePercentage(i, child) / 100);
+            }
+
+            if (child.getVisibility() != GONE) {
+                SliceTileCompositor.wedgeBounds(mMeasureBounds, startAngle, endAngle - startAngle, mWedgeBounds);
+                measureInWedge(child, layoutParams(child), roundUp(mWedgeBounds.width()),
+                        roundUp(mWedgeBounds.height()));
+            }
+
+            startAngle = endAngle;
+        }
+    }
+
+    private void measureInWedge(View child, LayoutParams lp, int wedgeWidth, int wedgeHeight) {
+        final int childWidthMeasureSpec = getChildMeasureSpec(
+                MeasureSpec.makeMeasureSpec(wedgeWidth, MeasureSpec.EXACTLY), 0, lp.width);
+        final int childHeightMeasureSpec = getChildMeasureSpec(
+                MeasureSpec.makeMeasureSpec(wedgeHeight, MeasureSpec.EXACTLY), 0, lp.height);
+        child.measure(childWidthMeasureSpec, childHeightMeasureSpec);
+    }
+
+    private static int roundUp(float size) {
+        return (int) Math.ceil(size / MEASURE_STEP) * MEASURE_STEP;
+    }
+
+    /**
+     * The square the slices are drawn in, centered and inset by the padding
+     * and the space for outside labels. For a gauge, the arc's bounding box
+     * is centered instead, and the square may reach beyond the view.
+     */
+    private void pieBounds(int width, int height, float labelSpace, RectF out) {
+        if (isGaugeLayout()) {
+            SliceTileCompositor.wedgeBounds(UNIT_CIRCLE, mAngleOffset, mAngleRange, mUnitArc);
+
+            final float radius = Math.max(0f, Math.min((width - 2f * mPadding) / mUnitArc.width(),
+                    (height - 2f * mPadding) / mUnitArc.height()));
+            final float cx = width / 2f - radius * mUnitArc.centerX();
+            final float cy = height / 2f - radius * mUnitArc.centerY();
+
+            out.set(cx - radius, cy - radius, cx + radius, cy + radius);
+            return;
+        }
+
+        final float minDimen = (width > height ? height : width) - 2f * labelSpace;
+
+        out.set(width / 2 - minDimen / 2 + mPadding, height / 2 - minDimen / 2 + mPadding, width / 2 + minDimen / 2 - mPadding, height / 2 + minDimen / 2 - mPadding);
+    }
+
+    /**
+     * Allocates the three layers if they were released or their size
+     * changed. They cover the whole view, or for a gauge only its arc; their
+     * canvases are translated so that everything draws in view coordinates.
+     *
+     * @return false if there is nothing to allocate yet
+     */
+    private boolean ensureBuffers(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+
+        bufferRect(width, height, mBufferRect);
+        if (mBufferRect.isEmpty()) {
+            return false;
+        }
+
+        final int bufferWidth = mBufferRect.width();
+        final int bufferHeight = mBufferRect.height();
+
+        if (mSrc != null && (mSrc.getWidth() != bufferWidth || mSrc.getHeight() != bufferHeight)) {
+            /*mDst.recycle();
+            mSrc.recycle();
+            mDrawingCache.recycle();*/
+
+            mDst = null;
+            mSrc = null;
+            mDrawingCache = null;
+        }
+
+        if (mSrc == null) {
+            mSrc = Bitmap.createBitmap(bufferWidth, bufferHeight, Bitmap.Config.ARGB_8888);
+            mDst = Bitmap.createBitmap(bufferWidth, bufferHeight, Bitmap.Config.ARGB_8888);
+            mDrawingCache = Bitmap.createBitmap(bufferWidth, bufferHeight, Bitmap.Config.ARGB_8888);
+
+            // Handle when drawborder dont
+            mSrc.eraseColor(Color.TRANSPARENT);
+            mDst.eraseColor(Color.TRANSPARENT);
+            mDrawingCache.eraseColor(Color.TRANSPARENT);
+
+            mSrcCanvas = null;
+        }
+
+        if (mSrcCanvas == null || mBufferLeft != mBufferRect.left || mBufferTop != mBufferRect.top) {
+            mSelectionLayersReady = false;
+            mMotionRasterReady = false;
+
+            mBufferLeft = mBufferRect.left;
+            mBufferTop = mBufferRect.top;
+
+            mSrcCanvas = new Canvas(mSrc);
+            mDstCanvas = new Canvas(mDst);
+            mCachedCanvas = new Canvas(mDrawingCache);
+
+            mSrcCanvas.translate(-mBufferLeft, -mBufferTop);
+            mDstCanvas.translate(-mBufferLeft, -mBufferTop);
+            mCachedCanvas.translate(-mBufferLeft, -mBufferTop);
+        }
+        return true;
+    }
+
+    private void bufferRect(int width, int height, Rect out) {
+        if (!isGaugeLayout()) {
+            out.set(0, 0, width, height);
+            return;
+        }
+
+        // The padding leaves room for the highlight and exploded slices
+        SliceTileCompositor.wedgeBounds(mBounds, mAngleOffset, mAngleRange, mWedgeBounds);
+        mWedgeBounds.inset(-mPadding, -mPadding);
+        mWedgeBounds.roundOut(out);
+
+        if (!out.intersect(0, 0, width, height)) {
+            out.setEmpty();
+        }
+    }
+
+    /**
+     * Frees the full-size layers, slice tiles and content recordings.
+     * Nothing else depends on their content: the next frame allocates them
+     * again and redraws the chart from the children.
+     */
+    private void releaseBuffers() {
+        if (mSrc != null) {
+            // Nothing draws these once dropped, the layer type is software
+            mSrc.recycle();
+            mDst.recycle();
+            mDrawingCache.recycle();
+        }
+
+        mSrc = null;
+        mDst = null;
+        mDrawingCache = null;
+        mSrcCanvas = null;
+        mDstCanvas = null;
+        mCachedCanvas = null;
+        mSelectionLayersReady = false;
+        mMotionRasterReady = false;
+
+        for (int i = 0, childs = getChildCount(); i < childs; i++) {
+            layoutParams(getChildAt(i)).content = null;
+        }
+
+        if (mTileCompositor != null) {
+            mTileCompositor.release();
+        }
+    }
+
+    /**
+     * Releases the buffers under memory pressure unless a rotation, whose
+     * frames are drawn from mDrawingCache, is in progress.
+     */
+    private void trimBuffers() {
+        if (mInMotion) {
+            return;
+        }
+        releaseBuffers();
+        invalidate();
+    }
+
+    /**
+     * @return bytes held by the full-size layers, 0 while released
+     */
+    public long getBufferByteCount() {
+        if (mSrc == null) {
+            return 0L;
+        }
+        return (long) mSrc.getByteCount() + mDst.getByteCount() + mDrawingCache.getByteCount();
+    }
+
+    /**
+     * @return false if no part of the chart can currently be seen: its window
+     * or an ancestor is hidden, it is fully transparent or scrolled out of
+     * its parents' bounds
+     */
+    @SuppressLint("NewApi")
+    private boolean isChartVisible() {
+        if (!mWindowVisible || !isShown()) {
+            return false;
+        }
+        if (Build.VERSION.SDK_INT >= 11 && getAlpha() <= 0f) {
+            return false;
+        }
+        return getGlobalVisibleRect(mVisibleRect);
+    }
+
+    /**
+     * invalidate() for the next frame of an animation. While the chart cannot
+     * be seen the animations are paused instead, so nothing is drawn until
+     * it shows again.
+     */
+    private void invalidateFrame() {
+        if (isChartVisible()) {
+            invalidate();
+        } else {
+            suspendFrames();
+        }
+    }
+
+    @SuppressLint("NewApi")
+    private void suspendFrames() {
+        if (mFramesSuspended) {
+            return;
+        }
+        mFramesSuspended = true;
+
+        removeCallbacks(mFlingStep);
+        if (mAnimator != null) {
+            mAnimator.pause();
+        }
+        if (mPublisher != null) {
+            mPublisher.detach(this);
+        }
+        if (mSnapAnimator != null && Build.VERSION.SDK_INT >= 19) {
+            mSnapAnimator.pause();
+        }
+
+        addResumeListener();
+    }
+
+    /**
+     * Continues the suspended animations from where they stopped, if the
+     * chart can be seen again.
+     */
+    @SuppressLint("NewApi")
+    private void resumeFrames() {
+        if (!mFramesSuspended || !isChartVisible()) {
+            return;
+        }
+        mFramesSuspended = false;
+        removeResumeListener();
+
+        if (mAnimator != null) {
+            mAnimator.resume();
+        }
+        if (mSnapAnimator != null && Build.VERSION.SDK_INT >= 19) {
+            mSnapAnimator.resume();
+        }
+        if (mPublisher != null && getWindowToken() != null) {
+            mPublisher.attach(this);
+        }
+        if (mFlingVelocity != 0f) {
+            mLastFlingTime = SystemClock.uptimeMillis();
+            postFrame(mFlingStep);
+        }
+        invalidate();
+    }
+
+    /**
+     * Scrolling back into view, or a parent or property animation bringing
+     * back the alpha, does not reach the chart otherwise; all of them come
+     * with a traversal of the window.
+     */
+    private void addResumeListener() {
+        final ViewTreeObserver observer = getViewTreeObserver();
+        if (mSuspendObserver == null && observer.isAlive()) {
+            observer.addOnPreDrawListener(mResumeOnPreDraw);
+            mSuspendObserver = observer;
+        }
+    }
+
+    private void removeResumeListener() {
+        if (mSuspendObserver != null) {
+            if (mSuspendObserver.isAlive()) {
+                mSuspendObserver.removeOnPreDrawListener(mResumeOnPreDraw);
+            }
+            mSuspendObserver = null;
+        }
+    }
+
+    /**
+     * @return true if something would produce frames while the chart cannot
+     * be seen: an animation, a fling or snap, the reveal or data updates
+     */
+    private boolean hasFrameWork() {
+        return (mAnimator != null && mAnimator.isRunning()) || mSnapAnimator != null
+                || mFlingVelocity != 0f || mInMotion || isAnimationOnly || mPublisher != null;
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        mWindowVisible = visibility == VISIBLE;
+
+        if (mWindowVisible) {
+            resumeFrames();
+        } else if (hasFrameWork()) {
+            suspendFrames();
+        }
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        if (visibility == VISIBLE) {
+            resumeFrames();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        getContext().getApplicationContext().registerComponentCallbacks(mMemoryCallbacks);
+
+        if (mPublisher != null && !mFramesSuspended) {
+            // Publishes whatever arrived while detached
+            mPublisher.attach(this);
+        }
+
+        if (mFramesSuspended) {
+            addResumeListener();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        getContext().getApplicationContext().unregisterComponentCallbacks(mMemoryCallbacks);
+
+        // The publisher may live longer than this view and its Activity
+        if (mPublisher != null) {
+            mPublisher.detach(this);
+        }
+
+        // Suspended animations stay paused until the chart is shown again
+        removeResumeListener();
+
+        // A detached chart neither rotates nor animates its selection
+        stopRotation(true);
+        mSelectionAnimating = false;
+        releaseBuffers();
+
+        super.onDetachedFromWindow();
+    }
+
+    public LayoutParams layoutParams(View child) {
+        return (LayoutParams) child.getLayoutParams();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        if (mFramesSuspended) {
+            resumeFrames();
+        }
+
+        if (mLayoutMode == LAYOUT_SUNBURST) {
+            layoutSunburst();
+            return;
+        }
+
+        final int childs = getChildCount();
+
+        mLayoutRotation = mRawRotationAngle;
+        mSelectionLayersReady = false;
+        mLabelSpace = getLabelSpace(getWidth(), getHeight());
+
+        final PrecomputedPie pie = mPrecomputed;
+        if (isPrecomputedValid(pie, childs, getWidth(), getHeight(), mLabelSpace)) {
+            layoutPrecomputed(pie);
+            updateHolePath();
+            mGeometry = pie.getGeometry();
+            if (mDonutHole) {
+                updateDividerLines();
+            } else {
+                mDividerLines = pie.getDividers();
+            }
+            layoutLabels();
+            updateSliceImages();
+            invalidateDecorations();
+            invalidate();
+            return;
+        }
+
+        float totalWeight = 0f;
+
+        for (int i = 0; i < childs; i++) {
+            final View child = getChildAt(i);
+
+            LayoutParams lp = layoutParams(child);
+
+            totalWeight += lp.weight;
+        }
+
+        final int width = getWidth();
+        final int height = getHeight();
+
+        pieBounds(width, height, mLabelSpace, mBounds);
+        updateHolePath();
+
+        final float minDimen = isGaugeLayout() ? mBounds.width() + 2f * mPadding
+                : (width > height ? height : width) - 2f * mLabelSpace;
+        final float radius = (minDimen - mInnerRadius) / 2f;
+
+        final int centerX = isGaugeLayout() ? Math.round(mBounds.centerX()) : width / 2;
+        final int centerY = isGaugeLayout() ? Math.round(mBounds.centerY()) : height / 2;
+
+        float startAngle = getLayoutAngleOffset();
+
+        for (int i = 0; i < childs; i++) {
+            final View child = getChildAt(i);
+
+            final LayoutParams lp = layoutParams(child);
+
+            //final float angle = mAngleRange /totalWeight * lp.weight;
+            float angle = 0;
+            if (i == (childs - 1)) {
+
+            }
+
+            angle = mAngleRange * (getSlicePercentage(i, child) / 100);
+            final float centerAngle = startAngle + angle / 2f;
+            final int x;
+            final int y;
+
+            if (childs > 1) {
+                x = (int) (radius * Math.cos(Math.toRadians(centerAngle))) + centerX;
+                y = (int) (radius * Math.sin(Math.toRadians(centerAngle))) + centerY;
+            } else {
+                x = centerX;
+                y = centerY;
+            }
+
+            layoutChild(child, lp, x, y, startAngle, startAngle + angle);
+
+            startAngle += angle;
+        }
+
+        updateGeometry();
+        updateDividerLines();
+        layoutLabels();
+        updateSliceImages();
+        invalidateDecorations();
+        invalidate();
+    }
+
+    private void updateHolePath() {
+        mHolePath.reset();
+        mHolePath.addCircle(getPieCenterX(), getPieCenterY(), mInnerRadius, Path.Direction.CW);
+    }
+
+    private void updateDividerLines() {
+        final int childs = getChildCount();
+
+        if (childs < 2) {
+            mDividerLines = new float[0];
+            return;
+        }
+
+        final float halfWidth = getPieCenterX();
+        final float halfHeight = getPieCenterY();
+        final float radius = getPieRadius();
+        final float hole = mDonutHole ? mInnerRadius : 0f;
+
+        final float[] lines = new float[(childs + 1) * 4];
+
+        for (int i = 0; i <= childs; i++) {
+            final LayoutParams lp = layoutParams(getChildAt(Math.min(i, childs - 1)));
+            final double radians = Math.toRadians(i < childs ? lp.startAngle : lp.endAngle);
+            final int offset = i * 4;
+
+            final float cos = (float) Math.cos(radians);
+            final float sin = (float) Math.sin(radians);
+
+            lines[offset] = hole * cos + halfWidth;
+            lines[offset + 1] = hole * sin + halfHeight;
+            lines[offset + 2] = radius * cos + halfWidth;
+            lines[offset + 3] = radius * sin + halfHeight;
+        }
+        mDividerLines = lines;
+    }
+
+    /**
+     * Mirrors the laid out angles into a {@link PieGeometry} for hit-testing.
+     */
+    private void updateGeometry() {
+        final int childs = getChildCount();
+
+        final float[] starts = new float[childs];
+        final float[] ends = new float[childs];
+
+        for (int i = 0; i < childs; i++) {
+            final LayoutParams lp = layoutParams(getChildAt(i));
+            starts[i] = lp.startAngle;
+            ends[i] = lp.endAngle;
+        }
+
+        mGeometry = PieGeometry.fromAngles(starts, ends, getPieCenterX(), getPieCenterY(),
+                getPieRadius(), mInnerRadius, getLayoutAngleOffset(), mAngleRange);
+    }
+
+    /**
+     * Requests the image of every slice whose ViewModel has one, scaled to
+     * its wedge's bounding box. A wedge that shrank keeps its larger image.
+     */
+    private void updateSliceImages() {
+        final int childs = getChildCount();
+
+        for (int i = 0; i < childs; i++) {
+            final View child = getChildAt(i);
+            final LayoutParams lp = layoutParams(child);
+            final ViewModel model = (ViewModel) child.getTag();
+            final String uri = model != null ? model.getImageUri() : null;
+
+            if (uri == null) {
+                lp.image = null;
+                continue;
+            }
+
+            if (lp.image == null || !uri.equals(lp.image.uri)) {
+                lp.image = new SliceImage(uri);
+            }
+
+            final SliceImage image = lp.image;
+            SliceTileCompositor.wedgeBounds(mBounds, lp.startAngle, lp.endAngle - lp.startAngle, mImageBounds);
+            image.setBounds(mImageBounds);
+
+            // Rounded up so small angle changes hit the same cache entry
+            final int width = SliceImage.roundSize(mImageBounds.width());
+            final int height = SliceImage.roundSize(mImageBounds.height());
+
+            if (width <= 0 || height <= 0
+                    || (width <= image.requestedWidth && height <= image.requestedHeight)) {
+                continue;
+            }
+
+            image.requestedWidth = width;
+            image.requestedHeight = height;
+
+            SliceImageCache.getInstance(getContext()).load(uri, width, height, new SliceImageCache.Callback() {
+                @Override
+                public void onImageLoaded(String uri, Bitmap bitmap) {
+                    if (lp.image == image && image.requestedWidth == width && image.requestedHeight == height) {
+                        image.setBitmap(bitmap);
+                        invalidate();
+                    }
+                }
+            });
+        }
+    }
+
+    private void layoutPrecomputed(PrecomputedPie pie) {
+        mBounds.set(pie.getBoundsLeft(), pie.getBoundsTop(), pie.getBoundsRight(), pie.getBoundsBottom());
+
+        final int childs = getChildCount();
+
+        for (int i = 0; i < childs; i++) {
+            final View child = getChildAt(i);
+
+            layoutChild(child, layoutParams(child), pie.getCenterX(i), pie.getCenterY(i),
+                    pie.getStartAngle(i), pie.getEndAngle(i));
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void layoutChild(View child, LayoutParams lp, int x, int y, float startAngle, float endAngle) {
+        final int width = getWidth();
+        final int height = getHeight();
+
+        final int halfChildWidth = child.getMeasuredWidth() / 2;
+        final int halfChildHeight = child.getMeasuredHeight() / 2;
+
+        int left = lp.width != LayoutParams.FILL_PARENT ? x - halfChildWidth : 0;
+        int top = lp.height != LayoutParams.FILL_PARENT ? y - halfChildHeight : 0;
+        int right = lp.width != LayoutParams.FILL_PARENT ? x + halfChildWidth : width;
+        int bottom = lp.height != LayoutParams.FILL_PARENT ? y + halfChildHeight : height;
+
+        if (mLayoutMode == LAYOUT_PIE
+                && (lp.width == LayoutParams.FILL_PARENT || lp.height == LayoutParams.FILL_PARENT)) {
+            // Measured to the wedge's bounding box, so centered on it
+            SliceTileCompositor.wedgeBounds(mBounds, startAngle, endAngle - startAngle, mWedgeBounds);
+
+            if (lp.width == LayoutParams.FILL_PARENT) {
+                left = Math.round(mWedgeBounds.centerX()) - halfChildWidth;
+                right = left + child.getMeasuredWidth();
+            }
+            if (lp.height == LayoutParams.FILL_PARENT) {
+                top = Math.round(mWedgeBounds.centerY()) - halfChildHeight;
+                bottom = top + child.getMeasuredHeight();
+            }
+        }
+
+        child.layout(left, top, right, bottom);
+
+        if (left != child.getLeft() || top != child.getTop()
+                || right != child.getRight() || bottom != child.getBottom()
+                || lp.startAngle != startAngle
+                || lp.endAngle != endAngle) {
+            mCached = false;
+        }
+
+        lp.startAngle = startAngle;
+        lp.endAngle = endAngle;
+    }
+
+    @Override
+    protected LayoutParams generateDefaultLayoutParams() {
+        return new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    protected LayoutParams generateLayoutParams(ViewGroup.LayoutParams p) {
+        LayoutParams lp = new LayoutParams(p.width, p.height);
+
+        if (p instanceof LinearLayout.LayoutParams) {
+            lp.weight = ((LinearLayout.LayoutParams) p).weight;
+        }
+
+        return lp;
+    }
+
+    @Override
+    public LayoutParams generateLayoutParams(AttributeSet attrs) {
+        return new LayoutParams(getContext(), attrs);
+    }
+
+    @Override
+    protected boolean checkLayoutParams(ViewGroup.LayoutParams p) {
+        return p instanceof LayoutParams;
+    }
+
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+        if (mLayoutMode == LAYOUT_NORMAL) {
+            return super.dispatchTouchEvent(ev);
+        }
+
+        if (mLayoutMode == LAYOUT_SUNBURST) {
+            return onSunburstTouchEvent(ev);
+        }
+
+        if (!mRotationEnabled || isGaugeLayout()) {
+            return dispatchSliceTouchEvent(ev);
+        }
+
+        if (onRotationTouchEvent(ev)) {
+            return true;
+        }
+
+        final boolean handled = dispatchSliceTouchEvent(ev);
+
+        // Keep receiving the gesture so that a drag can still turn into a rotation
+        return handled || (ev.getActionMasked() == MotionEvent.ACTION_DOWN && isInPie(ev.getX(), ev.getY()));
+    }
+
+    private boolean dispatchSliceTouchEvent(MotionEvent ev) {
+        final int action = ev.getAction();
+        final float x = ev.getX() - getPieCenterX();
+        final float y = ev.getY() - getPieCenterY();
+
+        if (action == MotionEvent.ACTION_DOWN) {
+
+            if (mMotionTarget != null) {
+                MotionEvent cancelEvent = MotionEvent.obtain(ev);
+                cancelEvent.setAction(MotionEvent.ACTION_CANCEL);
+
+                cancelEvent.offsetLocation(-mMotionTarget.getLeft(), -mMotionTarget.getTop());
+
+                mMotionTarget.dispatchTouchEvent(cancelEvent);
+                cancelEvent.recycle();
+
+                mMotionTarget = null;
+            }
+
+            final float radius = (float) Math.sqrt(x * x + y * y);
+
+            if (radius < mInnerRadius || radius > getPieRadius() + mLabelSpace) {
+                return false;
+            }
+
+            // Children stay where they were laid out until the chart comes to rest
+            final float angle = (float) Math.toDegrees(Math.atan2(y, x)) - (mRawRotationAngle - mLayoutRotation);
+            final int index = mGeometry != null ? mGeometry.indexOfAngle(angle) : -1;
+
+            if (index >= 0 && index < getChildCount()) {
+                final View child = getChildAt(index);
+
+                ev.offsetLocation(-child.getLeft(), -child.getTop());
+
+                boolean dispatched = child.dispatchTouchEvent(ev);
+
+                if (dispatched) {
+                    mMotionTarget = child;
+
+                    return true;
+                } else {
+                    ev.setLocation(0f, 0f);
+
+                    return onTouchEvent(ev);
+                }
+            }
+        } else if (mMotionTarget != null) {
+            ev.offsetLocation(-mMotionTarget.getLeft(), -mMotionTarget.getTop());
+
+            mMotionTarget.dispatchTouchEvent(ev);
+
+            if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+                mMotionTarget = null;
+            }
+        }
+
+        return onTouchEvent(ev);
+    }
+
+    private boolean isInPie(float touchX, float touchY) {
+        final float x = touchX - getPieCenterX();
+        final float y = touchY - getPieCenterY();
+        final float radius = (float) Math.sqrt(x * x + y * y);
+
+        return radius >= mInnerRadius && radius <= getPieRadius() + mLabelSpace;
+    }
+
+    private float touchAngle(MotionEvent ev) {
+        return (float) Math.toDegrees(Math.atan2(ev.getY() - getPieCenterY(), ev.getX() - getPieCenterX()));
+    }
+
+    /**
+     * @return true if the event belongs to a rotation and must not reach the
+     * slices
+     */
+    private boolean onRotationTouchEvent(MotionEvent ev) {
+        switch (ev.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN: {
+                // A touch stops a running fling and only grabs the chart
+                final boolean wasMoving = mInMotion;
+                stopRotation(false);
+
+                if (!isInPie(ev.getX(), ev.getY())) {
+                    finishMotion();
+                    return false;
+                }
+
+                if (mVelocityTracker == null) {
+                    mVelocityTracker = VelocityTracker.obtain();
+                } else {
+                    mVelocityTracker.clear();
+                }
+                mVelocityTracker.addMovement(ev);
+
+                mTouchStartX = ev.getX();
+                mTouchStartY = ev.getY();
+                mLastTouchAngle = touchAngle(ev);
+
+                if (wasMoving) {
+                    mDragging = true;
+                    startMotion();
+                }
+                return mDragging;
+            }
+
+            case MotionEvent.ACTION_MOVE: {
+                if (mVelocityTracker == null) {
+                    return false;
+                }
+                mVelocityTracker.addMovement(ev);
+
+                if (!mDragging) {
+                    final float dx = ev.getX() - mTouchStartX;
+                    final float dy = ev.getY() - mTouchStartY;
+
+                    if (dx * dx + dy * dy < mTouchSlop * mTouchSlop) {
+                        return false;
+                    }
+
+                    cancelMotionTarget(ev);
+                    mDragging = true;
+                    startMotion();
+                }
+
+                final float angle = touchAngle(ev);
+                mRawRotationAngle += normalizeSigned(angle - mLastTouchAngle);
+                mLastTouchAngle = angle;
+                invalidate();
+                return true;
+            }
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL: {
+                if (mVelocityTracker == null) {
+                    return false;
+                }
+                mVelocityTracker.addMovement(ev);
+
+                final boolean dragging = mDragging;
+                mDragging = false;
+
+                if (dragging) {
+                    mVelocityTracker.computeCurrentVelocity(1000);
+
+                    // Only the tangential part of the velocity turns the chart
+                    final float x = ev.getX() - getPieCenterX();
+                    final float y = ev.getY() - getPieCenterY();
+                    final float radius = (float) Math.sqrt(x * x + y * y);
+                    final float tangential = radius > 0f
+                            ? (x * mVelocityTracker.getYVelocity() - y * mVelocityTracker.getXVelocity()) / radius
+                            : 0f;
+
+                    if (ev.getActionMasked() == MotionEvent.ACTION_UP && Math.abs(tangential) >= mMinFlingVelocity) {
+                        startFling((float) Math.toDegrees(tangential / radius));
+                    } else {
+                        settleRotation();
+                    }
+                }
+
+                mVelocityTracker.recycle();
+                mVelocityTracker = null;
+                return dragging;
+            }
+        }
+
+        return mDragging;
+    }
+
+    private void cancelMotionTarget(MotionEvent ev) {
+        if (mMotionTarget == null) {
+            return;
+        }
+
+        final MotionEvent cancelEvent = MotionEvent.obtain(ev);
+        cancelEvent.setAction(MotionEvent.ACTION_CANCEL);
+        cancelEvent.offsetLocation(-mMotionTarget.getLeft(), -mMotionTarget.getTop());
+        mMotionTarget.dispatchTouchEvent(cancelEvent);
+        cancelEvent.recycle();
+
+        mMotionTarget = null;
+    }
+
+    /**
+     * Lets the user turn the chart by dragging and flinging it. Slices
+     * still receive taps; a touch that moves beyond the touch slop becomes a
+     * rotation and the slice gets a cancel event.
+     */
+    public void setRotationEnabled(boolean enabled) {
+        mRotationEnabled = enabled;
+        if (!enabled) {
+            stopRotation(true);
+        }
+    }
+
+    public boolean isRotationEnabled() {
+        return mRotationEnabled;
+    }
+
+    /**
+     * When enabled, a drag or fling comes to rest with the nearest slice
+     * centered on the snap angle.
+     */
+    public void setSnapToSlice(boolean snap) {
+        mSnapToSlice = snap;
+    }
+
+    public boolean isSnapToSlice() {
+        return mSnapToSlice;
+    }
+
+    /**
+     * @param angle where snapped and rotated-to slices are centered, in
+     *              degrees clockwise from 3 o'clock; defaults to 270, the top
+     */
+    public void setSnapAngle(float angle) {
+        mSnapAngle = angle;
+    }
+
+    public float getSnapAngle() {
+        return mSnapAngle;
+    }
+
+    /**
+     * Rotates the chart by the given angle on top of the angle offset,
+     * without animation.
+     */
+    public void setChartRotation(float degrees) {
+        stopRotation(false);
+        mInMotion = false;
+        mRawRotationAngle = degrees;
+        requestLayout();
+        invalidate();
+    }
+
+    public float getChartRotation() {
+        return mRawRotationAngle;
+    }
+
+    /**
+     * Turns the chart so that the slice is centered on the snap angle, the
+     * shorter way round.
+     */
+    public void rotateToSlice(int index, boolean animate) {
+        if (mGeometry == null || index < 0 || index >= mGeometry.getCount()) {
+            return;
+        }
+
+        final float target = mRawRotationAngle + rotationToCenter(index);
+
+        if (!animate) {
+            setChartRotation(target);
+            return;
+        }
+
+        stopRotation(false);
+        startMotion();
+        animateRotationTo(target);
+    }
+
+    /**
+     * Stops a fling or snap in progress and lays the children out where the
+     * chart stopped.
+     */
+    public void stopRotation() {
+        stopRotation(true);
+    }
+
+    private void stopRotation(boolean finish) {
+        removeCallbacks(mFlingStep);
+        mFlingVelocity = 0f;
+
+        if (mSnapAnimator != null) {
+            final ValueAnimator animator = mSnapAnimator;
+            mSnapAnimator = null;
+            animator.cancel();
+        }
+
+        if (finish) {
+            finishMotion();
+        }
+    }
+
+    /**
+     * @return the signed rotation that centers the slice on the snap angle
+     */
+    private float rotationToCenter(int index) {
+        final float center = mGeometry.getCenterAngle(index) + (mRawRotationAngle - mLayoutRotation);
+        return normalizeSigned(mSnapAngle - center);
+    }
+
+    private void startMotion() {
+        if (mInMotion) {
+            return;
+        }
+        mInMotion = true;
+
+        // A rotation ends the reveal
+        isAnimationOnly = false;
+        mMotionRasterReady = false;
+        ensureMotionRaster();
+    }
+
+    /**
+     * Composites the chart once into mDrawingCache, every motion frame just
+     * rotates this raster. Done again if the buffers were released or
+     * resized since, so a cleared buffer is never shown.
+     *
+     * @return false if there are no buffers to composite into yet
+     */
+    private boolean ensureMotionRaster() {
+        if (!ensureBuffers(getWidth(), getHeight())) {
+            return false;
+        }
+        if (mMotionRasterReady) {
+            return true;
+        }
+
+        mCachedCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        drawPie(mCachedCanvas);
+        mRasterRotation = mLayoutRotation;
+        // drawPie went through mSrc and mDst
+        mSelectionLayersReady = false;
+        mMotionRasterReady = true;
+        return true;
+    }
+
+    private void finishMotion() {
+        if (!mInMotion) {
+            return;
+        }
+        mInMotion = false;
+
+        requestLayout();
+        invalidate();
+    }
+
+    private void startFling(float degreesPerSecond) {
+        mFlingVelocity = degreesPerSecond;
+        mLastFlingTime = SystemClock.uptimeMillis();
+        postFrame(mFlingStep);
+    }
+
+    private void stepFling() {
+        final long now = SystemClock.uptimeMillis();
+        final float seconds = (now - mLastFlingTime) / 1000f;
+        mLastFlingTime = now;
+
+        mRawRotationAngle += mFlingVelocity * seconds;
+        mFlingVelocity *= (float) Math.exp(-FLING_FRICTION * seconds);
+
+        if (!isChartVisible()) {
+            // resumeFrames() continues the fling
+            suspendFrames();
+            return;
+        }
+        invalidate();
+
+        if (Math.abs(mFlingVelocity) > MIN_FLING_DEGREES) {
+            postFrame(mFlingStep);
+        } else {
+            mFlingVelocity = 0f;
+            settleRotation();
+        }
+    }
+
+    private void settleRotation() {
+        if (mSnapToSlice && mGeometry != null) {
+            final float angle = mSnapAngle - (mRawRotationAngle - mLayoutRotation);
+            final int index = mGeometry.indexOfAngle(angle);
+
+            if (index >= 0) {
+                animateRotationTo(mRawRotationAngle + rotationToCenter(index));
+                return;
+            }
+        }
+
+        finishMotion();
+    }
+
+    private void animateRotationTo(float target) {
+        final ValueAnimator animator = ValueAnimator.ofFloat(mRawRotationAngle, target);
+        animator.setDuration(SNAP_DURATION);
+        animator.setInterpolator(new DecelerateInterpolator());
+        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                if (mSnapAnimator == animation) {
+                    mRawRotationAngle = (Float) animation.getAnimatedValue();
+                    invalidateFrame();
+                }
+            }
+        });
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                // Also called after cancel(), which clears mSnapAnimator first
+                if (mSnapAnimator == animation) {
+                    mSnapAnimator = null;
+                    finishMotion();
+                }
+            }
+        });
+
+        mSnapAnimator = animator;
+        animator.start();
+    }
+
+    private void postFrame(Runnable action) {
+        if (Build.VERSION.SDK_INT >= 16) {
+            postOnAnimation(action);
+        } else {
+            postDelayed(action, 16L);
+        }
+    }
+
+    private static float normalizeSigned(float angle) {
+        angle %= 360f;
+        if (angle > 180f) {
+            angle -= 360f;
+        } else if (angle <= -180f) {
+            angle += 360f;
+        }
+        return angle;
+    }
+
+    private void drawChild(int i,Canvas canvas, View child, LayoutParams lp, boolean animation) {
+
+        // Image slices are filled straight from their shader, the view is not drawn
+        final Paint imagePaint = lp.image != null ? lp.image.paint : null;
+
+        if (imagePaint == null) {
+            mSrcCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+            mDstCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+
+            mSrcCanvas.save();
+
+            int childLeft = child.getLeft();
+            int childTop = child.getTop();
+            int childRight = child.getRight();
+            int childBottom = child.getBottom();
+            mSrcCanvas.clipRect(childLeft, childTop, childRight, childBottom, Op.REPLACE);
+            if (mDonutHole) {
+                // Content under the hole would only be masked away
+                mSrcCanvas.clipPath(mHolePath, Op.DIFFERENCE);
+            }
+            mSrcCanvas.translate(childLeft, childTop);
+
+            drawChildContent(mSrcCanvas, child, lp);
+
+            mSrcCanvas.restore();
+        }
+
+        sweepAngle = (lp.endAngle - lp.startAngle);
+        float drawnSweep = sweepAngle;
+        boolean highlight = false;
+
+        if (isAnimationOnly) {
+
+            if (mSweeps.get(i) < sweepAngle) {
+                mSweeps.set(i,(mSweeps.get(i) + SWEEP_INC));
+                Log.d("Sweep","View " + i + " : " +  mSweeps.get(i) + " / " + sweepAngle);
+                drawnSweep = mSweeps.get(i);
+                invalidateFrame();
+                isAnimationView = true;
+            } else {
+                isAnimationView = false;
+                if (animation) isAnimationOnly = false;
+            }
+
+        } else {
+            ViewModel model = (ViewModel) child.getTag();
+            highlight = model.isNeedHighlight() || i == mSelectedIndex;
+        }
+
+        if (imagePaint != null) {
+            mRenderer.fillWedge(canvas, imagePaint, mBounds, lp.startAngle, drawnSweep);
+            if (highlight) {
+                mRenderer.drawHighlight(canvas, mBounds, lp.startAngle, sweepAngle);
+            }
+            return;
+        }
+
+        mRenderer.drawWedge(mDstCanvas, mSrc, mBufferLeft, mBufferTop, mBounds, lp.startAngle, drawnSweep);
+        if (highlight) {
+            mRenderer.drawHighlight(mDstCanvas, mBounds, lp.startAngle, sweepAngle);
+        }
+        canvas.drawBitmap(mDst, mBufferLeft, mBufferTop, null);
+    }
+
+    /**
+     * Draws the child at the canvas origin by replaying a recording of its
+     * content, so a static slice costs the same whatever its view hierarchy.
+     * The child draws itself again, into a new recording, only when it was
+     * invalidated since or its size changed. View.isDirty() is API 21, older
+     * releases draw the child every time.
+     */
+    private void drawChildContent(Canvas canvas, View child, LayoutParams lp) {
+        if (Build.VERSION.SDK_INT < 21) {
+            child.draw(canvas);
+            return;
+        }
+
+        canvas.drawPicture(recordChildContent(child, lp));
+    }
+
+    /**
+     * Brings lp.content up to date with the child, drawing the child into it
+     * only if needed, and bumps lp.contentVersion when it does.
+     */
+    @TargetApi(21)
+    private Picture recordChildContent(View child, LayoutParams lp) {
+        final int width = child.getWidth();
+        final int height = child.getHeight();
+        Picture content = lp.content;
+
+        // child.draw() clears the dirty flag, so it is set only by a new invalidate()
+        if (content == null || child.isDirty() || content.getWidth() != width || content.getHeight() != height) {
+            if (content == null) {
+                content = new Picture();
+                lp.content = content;
+            }
+            child.draw(content.beginRecording(width, height));
+            content.endRecording();
+            lp.contentVersion++;
+        }
+
+        return content;
+    }
+
+    /**
+     * Drops the recorded background and decorations, which are recorded
+     * again on the next frame.
+     */
+    private void invalidateDecorations() {
+        mBackgroundPicture = null;
+        mDecorationPicture = null;
+    }
+
+    private void drawBackgroundLayer(Canvas canvas) {
+        final Drawable bkg = getBackground();
+        if (bkg == null) {
+            return;
+        }
+
+        if (mBackgroundPicture == null) {
+            final Picture picture = new Picture();
+            bkg.draw(picture.beginRecording(getWidth(), getHeight()));
+            picture.endRecording();
+            mBackgroundPicture = picture;
+        }
+        canvas.drawPicture(mBackgroundPicture);
+    }
+
+    /**
+     * Replays the dividers, inner circle and labels, recording them first
+     * if the layout or their style changed since the last frame.
+     */
+    private void drawDecorationLayer(Canvas canvas) {
+        if (mDecorationPicture == null) {
+            final Picture picture = new Picture();
+            final Canvas recording = picture.beginRecording(getWidth(), getHeight());
+
+            mRenderer.drawDividers(recording, mDividerLines);
+            drawInnerCircle(recording, getPieCenterX(), getPieCenterY());
+            drawLabels(recording);
+
+            picture.endRecording();
+            mDecorationPicture = picture;
+        }
+        canvas.drawPicture(mDecorationPicture);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setBackgroundDrawable(Drawable background) {
+        super.setBackgroundDrawable(background);
+        mBackgroundPicture = null;
+        mBackgroundRes = 0;
+    }
+
+    @Override
+    public void setBackgroundResource(int resid) {
+        super.setBackgroundResource(resid);
+        mBackgroundRes = resid;
+    }
+
+    @Override
+    public void invalidateDrawable(Drawable drawable) {
+        if (drawable == getBackground()) {
+            mBackgroundPicture = null;
+        }
+        super.invalidateDrawable(drawable);
+    }
+
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+        mBackgroundPicture = null;
+    }
+
+    private void drawInnerCircle(Canvas canvas, float halfWidth, float halfHeight) {
+        if (mInnerCircle != null && !mDonutHole) {
+            if (!(mInnerCircle instanceof ColorDrawable)) {
+                mInnerCircle.setBounds(
+                        (int) halfWidth - mInnerRadius,
+                        (int) halfHeight - mInnerRadius,
+                        (int) halfWidth + mInnerRadius,
+                        (int) halfHeight + mInnerRadius);
+
+                mInnerCircle.draw(canvas);
+            } else {
+                mRenderer.drawInnerCircle(canvas, halfWidth, halfHeight, mInnerRadius);
+            }
+        }
+    }
+
+    boolean isListFloat = true;
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        if (mLayoutMode == LAYOUT_NORMAL) {
+            super.dispatchDraw(canvas);
+            return;
+        }
+
+        if (mLayoutMode == LAYOUT_SUNBURST) {
+            if (mSunburst != null) {
+                if (mSunburstCanvas == null) {
+                    mSunburstCanvas = new CanvasPieCanvas(canvas);
+                } else {
+                    mSunburstCanvas.setCanvas(canvas);
+                }
+                SunburstPainter.paint(mSunburst, mSunburstStyle, mSunburstCanvas,
+                        mSunburstHighlightRing, mSunburstHighlightIndex);
+            }
+            return;
+        }
+
+        if (!ensureBuffers(getWidth(), getHeight())) {
+            return;
+        }
+
+        if (mInMotion && ensureMotionRaster()) {
+            canvas.save();
+            canvas.rotate(mRawRotationAngle - mRasterRotation, getPieCenterX(), getPieCenterY());
+            canvas.drawBitmap(mDrawingCache, mBufferLeft, mBufferTop, rasterPaint());
+            canvas.restore();
+            return;
+        }
+
+        if (mSelectionAnimating && mDrawingCache != null && mSelectedIndex < getChildCount()) {
+            drawSelectionFrame(canvas);
+            return;
+        }
+
+        final int childs = getChildCount();
+
+        if (isListFloat){
+            mSweeps = new ArrayList<>();
+            for (int i = 0 ;i<childs;i++){
+                mSweeps.add(i,0f);
+            }
+            isListFloat = false;
+        }
+
+        final PieRenderCache.Key key = buildRenderCacheKey();
+
+        if (key != null) {
+            final PieRenderCache cache = PieRenderCache.getInstance();
+            final Bitmap cached = cache.get(key);
+
+            if (cached != null) {
+                if (!key.equals(mCountedKey)) {
+                    mCountedKey = key;
+                    cache.recordHit();
+                }
+
+                // The final raster is already known, no need to reveal it again
+                isAnimationOnly = false;
+                canvas.drawBitmap(cached, mBufferLeft, mBufferTop, null);
+                onChartShown();
+                return;
+            }
+
+            if (mDiskCache != null && mRenderKeyPersistent) {
+                if (!key.equals(mDiskKey)) {
+                    mDiskKey = key;
+                    mDiskBitmap = null;
+                    mDiskPending = mDiskCache.load(key, mDiskCallback);
+                }
+
+                if (mDiskPending) {
+                    // Only for the frame or two the read takes, rendering now would be covered by it
+                    drawBackgroundLayer(canvas);
+                    return;
+                }
+
+                if (mDiskBitmap != null) {
+                    // Show the last run's raster now and render live on the next frame
+                    final Bitmap stored = mDiskBitmap;
+                    mDiskBitmap = null;
+                    isAnimationOnly = false;
+                    canvas.drawBitmap(stored, mBufferLeft, mBufferTop, null);
+                    onChartShown();
+                    invalidate();
+                    return;
+                }
+            }
+
+            mCachedCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+            drawPie(mCachedCanvas);
+            canvas.drawBitmap(mDrawingCache, mBufferLeft, mBufferTop, null);
+
+            if (!isAnimationOnly) {
+                final Bitmap copy = mDrawingCache.copy(Bitmap.Config.ARGB_8888, false);
+                cache.put(key, copy);
+                if (!key.equals(mCountedKey)) {
+                    mCountedKey = key;
+                    cache.recordMiss();
+                }
+                if (mDiskCache != null && mRenderKeyPersistent) {
+                    mDiskCache.put(key, copy);
+                }
+                onChartShown();
+            }
+            return;
+        }
+
+        drawPie(canvas);
+        if (!isAnimationOnly) {
+            onChartShown();
+        }
+    }
+
+    private void onChartShown() {
+        if (mTimeToFirstChart >= 0L) {
+            return;
+        }
+
+        final long start = Build.VERSION.SDK_INT >= 24 ? Process.getStartUptimeMillis() : mCreatedAt;
+        mTimeToFirstChart = SystemClock.uptimeMillis() - start;
+    }
+
+    /**
+     * Milliseconds from process start (view creation below API 24) until the
+     * complete chart was first on screen, either from a cache or after the
+     * reveal finished, or -1 if that has not happened yet.
+     */
+    public long getTimeToFirstChart() {
+        return mTimeToFirstChart;
+    }
+
+    private void drawPie(Canvas canvas) {
+        final int childs = getChildCount();
+
+        drawBackgroundLayer(canvas);
+
+        for (int i = 0; i < childs; i++) {
+            final View child = getChildAt(i);
+            LayoutParams lp = layoutParams(child);
+
+            if (i == mSelectedIndex && mExplodeOffset != 0f && !isAnimationOnly) {
+                canvas.save();
+                translateExploded(canvas, lp, 1f);
+                drawChild(i, canvas, child, lp, false);
+                canvas.restore();
+                continue;
+            }
+
+            if (mTileCompositor != null && !isAnimationOnly && (lp.image == null || lp.image.paint == null)) {
+                final ViewModel model = (ViewModel) child.getTag();
+                // Shared by the tile capture and the synchronous fallback
+                recordChildContent(child, lp);
+                if (mTileCompositor.draw(canvas, i, child, lp, mBounds,
+                        model.isNeedHighlight() || i == mSelectedIndex, mRenderer)) {
+                    continue;
+                }
+            }
+
+            if (i == childs - 1)
+                drawChild(i,canvas, child, lp, true);
+            else{
+                drawChild(i,canvas, child, lp, false);
+                if (isAnimationOnly){
+                    if (isAnimationView)
+                        break;
+                    else
+                        continue;
+                }
+            }
+        }
+
+        drawDecorationLayer(canvas);
+    }
+
+    /**
+     * When enabled, slices whose content is not changing are pre-masked into
+     * per-slice tiles on a worker pool, and frames only composite the ready
+     * tiles. Slices without a ready tile are drawn synchronously as before.
+     * Needs API 21 to detect changing children; ignored on older releases.
+     */
+    public void setParallelSliceRendering(boolean enabled) {
+        if (Build.VERSION.SDK_INT < 21) {
+            return;
+        }
+
+        if (enabled && mTileCompositor == null) {
+            mTileCompositor = new SliceTileCompositor(this);
+        } else if (!enabled && mTileCompositor != null) {
+            mTileCompositor.release();
+            mTileCompositor = null;
+        }
+        invalidate();
+    }
+
+    public boolean isParallelSliceRendering() {
+        return mTileCompositor != null;
+    }
+
+    /**
+     * Selects a slice: it is pushed out by the explode offset and outlined
+     * with the highlight stroke, animated with a {@link ChartAnimator}. While
+     * the animation runs only the selected wedge is redrawn over a composite
+     * of the other slices, so a frame costs the same for any slice count.
+     *
+     * @param index the slice to select, or -1 to clear the selection
+     */
+    public void select(int index) {
+        if (index == mSelectedIndex) {
+            return;
+        }
+
+        mSelectedIndex = index < 0 || index >= getChildCount() ? -1 : index;
+        mSelectionLayersReady = false;
+        mSelectionAnimating = mSelectedIndex >= 0 && Build.VERSION.SDK_INT >= 11;
+
+        if (mSelectionAnimating) {
+            if (mAnimator == null) {
+                mAnimator = new ChartAnimator(new ValueAnimator.AnimatorUpdateListener() {
+                    @Override
+                    public void onAnimationUpdate(ValueAnimator animation) {
+                        invalidateFrame();
+                    }
+                });
+            }
+            mAnimator.animateY(SELECTION_DURATION, Easing.EasingOption.EaseOutCubic);
+        }
+        invalidate();
+    }
+
+    public int getSelectedIndex() {
+        return mSelectedIndex;
+    }
+
+    /**
+     * @param offset how far the selected slice moves out from the center, in
+     *               pixels. Anything beyond the layout's padding is clipped.
+     */
+    public void setExplodeOffset(float offset) {
+        mExplodeOffset = offset;
+        invalidate();
+    }
+
+    public float getExplodeOffset() {
+        return mExplodeOffset;
+    }
+
+    /**
+     * Outline of the selected slice and of slices whose ViewModel asks for a
+     * highlight.
+     */
+    public void setHighlightStroke(int color, float width) {
+        mRenderer.setHighlightColor(color);
+        mRenderer.setHighlightWidth(width);
+        invalidate();
+    }
+
+    private void translateExploded(Canvas canvas, LayoutParams lp, float phase) {
+        final double center = Math.toRadians((lp.startAngle + lp.endAngle) / 2f);
+        canvas.translate(mExplodeOffset * phase * (float) Math.cos(center),
+                mExplodeOffset * phase * (float) Math.sin(center));
+    }
+
+    private void drawSelectionFrame(Canvas canvas) {
+        final View selected = getChildAt(mSelectedIndex);
+        final LayoutParams lp = layoutParams(selected);
+
+        if (!mSelectionLayersReady) {
+            prepareSelectionLayers(selected, lp);
+        }
+
+        final float phase = Math.min(1f, mAnimator.getPhaseY());
+
+        canvas.drawBitmap(mDrawingCache, mBufferLeft, mBufferTop, null);
+
+        canvas.save();
+        translateExploded(canvas, lp, phase);
+        canvas.drawBitmap(mDst, mBufferLeft, mBufferTop, null);
+        mRenderer.drawHighlight(canvas, mBounds, lp.startAngle, lp.endAngle - lp.startAngle, (int) (255 * phase));
+        canvas.restore();
+
+        drawInnerCircle(canvas, getPieCenterX(), getPieCenterY());
+
+        if (phase >= 1f) {
+            // Settle with one regular frame, which may also be cached
+            mSelectionAnimating = false;
+            invalidate();
+        }
+    }
+
+    /**
+     * Composites every slice but the selected one, with the dividers, into
+     * mDrawingCache, and leaves the masked selected wedge in mDst.
+     */
+    private void prepareSelectionLayers(View selected, LayoutParams selectedLp) {
+        isAnimationOnly = false;
+        mMotionRasterReady = false;
+
+        final int childs = getChildCount();
+
+        mCachedCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+
+        drawBackgroundLayer(mCachedCanvas);
+
+        for (int i = 0; i < childs; i++) {
+            if (i != mSelectedIndex) {
+                final View child = getChildAt(i);
+                drawChild(i, mCachedCanvas, child, layoutParams(child), false);
+            }
+        }
+
+        // The selected wedge goes between this layer and the inner circle,
+        // which every frame draws again on top
+        drawDecorationLayer(mCachedCanvas);
+
+        mDstCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+
+        if (selectedLp.image != null && selectedLp.image.paint != null) {
+            mRenderer.fillWedge(mDstCanvas, selectedLp.image.paint, mBounds, selectedLp.startAngle,
+                    selectedLp.endAngle - selectedLp.startAngle);
+            mSelectionLayersReady = true;
+            return;
+        }
+
+        mSrcCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+
+        mSrcCanvas.save();
+        mSrcCanvas.clipRect(selected.getLeft(), selected.getTop(), selected.getRight(), selected.getBottom());
+        mSrcCanvas.translate(selected.getLeft(), selected.getTop());
+        drawChildContent(mSrcCanvas, selected, selectedLp);
+        mSrcCanvas.restore();
+
+        mRenderer.drawWedge(mDstCanvas, mSrc, mBufferLeft, mBufferTop, mBounds, selectedLp.startAngle,
+                selectedLp.endAngle - selectedLp.startAngle);
+
+        mSelectionLayersReady = true;
+    }
+
+    /**
+     * Identifies what the slice children show, so that identical charts in
+     * recycled rows can share a raster through {@link PieRenderCache}. The
+     * layout cannot hash arbitrary child views itself; pass something like the
+     * bound item's id, or null to disable caching.
+     */
+    public void setRenderCacheKey(Object contentKey) {
+        mRenderCacheKey = contentKey;
+        invalidate();
+    }
+
+    public Object getRenderCacheKey() {
+        return mRenderCacheKey;
+    }
+
+    /**
+     * Persists composited rasters across runs, so that on a cold start the
+     * chart is drawn from disk on its first frame and rendered live on the
+     * next. The raster is read in the background; until it arrives only the
+     * background is drawn. Requires a render cache key whose toString() is
+     * stable across runs. Charts with a non-color background or inner circle
+     * drawable not set from a resource are not persisted.
+     */
+    public void setDiskCache(PieDiskCache cache) {
+        mDiskCache = cache;
+        mDiskKey = null;
+        mDiskPending = false;
+        mDiskBitmap = null;
+        invalidate();
+    }
+
+    public PieDiskCache getDiskCache() {
+        return mDiskCache;
+    }
+
+    private PieRenderCache.Key buildRenderCacheKey() {
+        if (mRenderCacheKey == null || getWidth() == 0 || getHeight() == 0) {
+            return null;
+        }
+
+        final int childs = getChildCount();
+        boolean persistent = true;
+
+        int dataHash = childs;
+        for (int i = 0; i < childs; i++) {
+            final View child = getChildAt(i);
+            final LayoutParams lp = layoutParams(child);
+            final ViewModel model = (ViewModel) child.getTag();
+
+            dataHash = 31 * dataHash + Float.floatToIntBits(lp.startAngle);
+            dataHash = 31 * dataHash + Float.floatToIntBits(lp.endAngle);
+            dataHash = 31 * dataHash + (model != null && model.isNeedHighlight() ? 1 : 0);
+            if (lp.image != null) {
+                // A slice looks different once its image arrives
+                final Bitmap bitmap = lp.image.bitmap;
+                dataHash = 31 * dataHash + lp.image.uri.hashCode();
+                dataHash = 31 * dataHash + (bitmap != null ? bitmap.getWidth() * 31 + bitmap.getHeight() : 0);
+            }
+        }
+        dataHash = 31 * dataHash + mSelectedIndex;
+        dataHash = 31 * dataHash + Float.floatToIntBits(mExplodeOffset);
+
+        int styleHash = mInnerRadius;
+        styleHash = 31 * styleHash + Float.floatToIntBits(mDividerWidth);
+        styleHash = 31 * styleHash + mRenderer.getDividerColor();
+        styleHash = 31 * styleHash + mRenderer.getHighlightColor();
+        styleHash = 31 * styleHash + Float.floatToIntBits(mRenderer.getHighlightWidth());
+        styleHash = 31 * styleHash + (mDonutHole ? 1 : 0);
+        styleHash = 31 * styleHash + (isGaugeLayout() ? 1 : 0);
+        if (mInnerCircle == null || mInnerCircle instanceof ColorDrawable) {
+            styleHash = 31 * styleHash + (mInnerCircle != null ? mRenderer.getInnerCircleColor() : 0);
+        } else if (mInnerCircleRes != 0) {
+            styleHash = 31 * styleHash + mInnerCircleRes;
+        } else {
+            styleHash = 31 * styleHash + System.identityHashCode(mInnerCircle);
+            persistent = false;
+        }
+        final Drawable background = getBackground();
+        if (background == null || background instanceof ColorDrawable) {
+            styleHash = 31 * styleHash + (background != null ? ((ColorDrawable) background).getColor() : 0);
+        } else if (mBackgroundRes != 0) {
+            styleHash = 31 * styleHash + mBackgroundRes;
+        } else {
+            styleHash = 31 * styleHash + System.identityHashCode(background);
+            persistent = false;
+        }
+        if (hasOutsideLabels()) {
+            styleHash = 31 * styleHash + Arrays.hashCode(mLabels);
+            styleHash = 31 * styleHash + Float.floatToIntBits(mLabelTextSize);
+            styleHash = 31 * styleHash + mLabelColor;
+            styleHash = 31 * styleHash + mLeaderColor;
+        }
+
+        mRenderKeyPersistent = persistent;
+        return new PieRenderCache.Key(mRenderCacheKey, dataHash, getWidth(), getHeight(), styleHash);
+    }
+
+    /**
+     * Renders the chart into the shared {@link PieRenderCache} ahead of its
+     * first draw, e.g. from onBindViewHolder while RecyclerView is
+     * prefetching an off-screen row. The view is measured and laid out at
+     * the given size if it has not been already.
+     */
+    public void prefetchRender(int width, int height) {
+        if (mRenderCacheKey == null || mLayoutMode != LAYOUT_PIE || width <= 0 || height <= 0) {
+            return;
+        }
+
+        if (getWidth() != width || getHeight() != height || isLayoutRequested()) {
+            measure(MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY),
+                    MeasureSpec.makeMeasureSpec(height, MeasureSpec.EXACTLY));
+            layout(0, 0, width, height);
+        }
+
+        final PieRenderCache.Key key = buildRenderCacheKey();
+        final PieRenderCache cache = PieRenderCache.getInstance();
+
+        if (key == null || cache.contains(key) || !ensureBuffers(width, height)) {
+            return;
+        }
+
+        final boolean animationOnly = isAnimationOnly;
+        isAnimationOnly = false;
+        mMotionRasterReady = false;
+
+        mCachedCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        drawPie(mCachedCanvas);
+        cache.put(key, mDrawingCache.copy(Bitmap.Config.ARGB_8888, false));
+
+        isAnimationOnly = animationOnly;
+    }
+
+    /**
+     * Streams the chart as SVG: one wedge path per slice from the laid out
+     * angles, the borders of highlighted and selected slices, the dividers
+     * and the inner circle. Elements are written as they are produced, so
+     * memory use does not grow with the number of slices.
+     *
+     * Slice content is arbitrary views and cannot be expressed as vectors;
+     * a slice is filled with its child's background color if that is a
+     * ColorDrawable, or with a {@link PieStyle} default color otherwise. A
+     * non-color inner circle drawable is left out.
+     *
+     * @param out written to as is; wrap it in a BufferedWriter unless it
+     *            already buffers
+     */
+    public void exportSvg(Writer out) throws IOException {
+        final int width = getWidth();
+        final int height = getHeight();
+
+        final float halfWidth = getPieCenterX();
+        final float halfHeight = getPieCenterY();
+        final float radius = getPieRadius();
+
+        final float cx = mBounds.centerX();
+        final float cy = mBounds.centerY();
+        final float sliceRadius = mBounds.width() / 2f;
+        final float hole = mDonutHole ? mInnerRadius : 0f;
+
+        final PieStyle style = buildExportStyle();
+        final SvgPieCanvas svg = new SvgPieCanvas(out, width, height);
+
+        final int childs = getChildCount();
+
+        for (int i = 0; i < childs; i++) {
+            final LayoutParams lp = layoutParams(getChildAt(i));
+            svg.fillWedge(cx, cy, sliceRadius, hole, lp.startAngle, lp.endAngle - lp.startAngle,
+                    style.getSliceColor(i));
+        }
+
+        for (int i = 0; i < childs; i++) {
+            final View child = getChildAt(i);
+            final ViewModel model = (ViewModel) child.getTag();
+
+            if ((model != null && model.isNeedHighlight()) || i == mSelectedIndex) {
+                final LayoutParams lp = layoutParams(child);
+                svg.strokeWedge(cx, cy, sliceRadius, hole, lp.startAngle, lp.endAngle - lp.startAngle,
+                        style.getHighlightWidth(), style.getHighlightColor());
+            }
+        }
+
+        if (childs > 1) {
+            for (int i = 0; i <= childs; i++) {
+                final LayoutParams lp = layoutParams(getChildAt(Math.min(i, childs - 1)));
+                final double radians = Math.toRadians(i < childs ? lp.startAngle : lp.endAngle);
+                final float cos = (float) Math.cos(radians);
+                final float sin = (float) Math.sin(radians);
+
+                svg.drawLine(hole * cos + halfWidth, hole * sin + halfHeight,
+                        radius * cos + halfWidth,
+                        radius * sin + halfHeight,
+                        style.getDividerWidth(), style.getDividerColor());
+            }
+        }
+
+        if (style.hasInnerCircle() && !style.hasHole()) {
+            svg.fillCircle(halfWidth, halfHeight, mInnerRadius, style.getInnerCircleColor());
+        }
+
+        svg.finish();
+    }
+
+    /**
+     * Streams the chart as a PNG of size x size pixels, rendered in square
+     * tiles so that no bitmap larger than a tile is ever allocated. Colors
+     * are chosen as in {@link #exportSvg(Writer)}; strokes and the inner
+     * radius are scaled with the chart.
+     *
+     * @param tileSize edge of the square tiles, e.g. 512
+     * @see PiePosterExporter
+     */
+    public void exportPoster(OutputStream out, int size, int tileSize) throws IOException {
+        final int minDimen = Math.min(getWidth(), getHeight());
+        if (minDimen == 0) {
+            throw new IllegalStateException("CircleLayout has not been laid out");
+        }
+
+        final float scale = size / (float) minDimen;
+        final int childs = getChildCount();
+
+        final float[] starts = new float[childs];
+        final float[] ends = new float[childs];
+        final BitSet highlighted = new BitSet(childs);
+
+        for (int i = 0; i < childs; i++) {
+            final View child = getChildAt(i);
+            final LayoutParams lp = layoutParams(child);
+            final ViewModel model = (ViewModel) child.getTag();
+
+            starts[i] = lp.startAngle;
+            ends[i] = lp.endAngle;
+
+            if ((model != null && model.isNeedHighlight()) || i == mSelectedIndex) {
+                highlighted.set(i);
+            }
+        }
+
+        final PieGeometry geometry = PieGeometry.fromAngles(starts, ends, size / 2f, size / 2f,
+                size / 2f - mPadding * scale, mInnerRadius * scale, getLayoutAngleOffset(), mAngleRange);
+
+        final PieStyle style = buildExportStyle();
+        style.setDivider(style.getDividerColor(), style.getDividerWidth() * scale);
+        style.setHighlight(style.getHighlightColor(), style.getHighlightWidth() * scale);
+
+        PiePosterExporter.export(geometry, style, highlighted, size, size, tileSize, out);
+    }
+
+    /**
+     * Flat colors standing in for what the layout draws: each slice's
+     * ColorDrawable background, or a PieStyle default, plus the layout's
+     * divider, highlight and inner circle colors.
+     */
+    private PieStyle buildExportStyle() {
+        final PieStyle defaults = new PieStyle();
+        final int childs = getChildCount();
+
+        final int[] colors = new int[Math.max(childs, 1)];
+        colors[0] = defaults.getSliceColor(0);
+
+        for (int i = 0; i < childs; i++) {
+            final Drawable background = getChildAt(i).getBackground();
+            colors[i] = background instanceof ColorDrawable
+                    ? ((ColorDrawable) background).getColor() : defaults.getSliceColor(i);
+        }
+
+        final PieStyle style = new PieStyle()
+                .setSliceColors(colors)
+                .setDivider(mRenderer.getDividerColor(), mDividerWidth)
+                .setHighlight(mRenderer.getHighlightColor(), mRenderer.getHighlightWidth())
+                .setHole(mDonutHole);
+
+        if (mRenderer.hasInnerCircle()) {
+            style.setInnerCircleColor(mRenderer.getInnerCircleColor());
+        }
+        return style;
+    }
+
+    /**
+     * Sets the text of each slice's outside label, by child index. Labels
+     * are shown when {@link #setOutsideLabels(boolean)} is on.
+     */
+    public void setSliceLabels(CharSequence... labels) {
+        mLabels = labels;
+        measureLabels();
+        requestLayout();
+        invalidate();
+    }
+
+    public CharSequence[] getSliceLabels() {
+        return mLabels;
+    }
+
+    /**
+     * Draws the slice labels outside the pie with leader lines, stacked so
+     * they never overlap. The pie shrinks as far as needed to fit the
+     * widest label beside it; labels that do not fit vertically are
+     * dropped, narrowest slices first.
+     */
+    public void setOutsideLabels(boolean enabled) {
+        mOutsideLabels = enabled;
+        requestLayout();
+        invalidate();
+    }
+
+    public boolean isOutsideLabels() {
+        return mOutsideLabels;
+    }
+
+    public void setLabelTextSize(float px) {
+        mLabelTextSize = px;
+        if (mLabelPaint != null) {
+            mLabelPaint.setTextSize(px);
+        }
+        measureLabels();
+        requestLayout();
+        invalidate();
+    }
+
+    public void setLabelColor(int color) {
+        mLabelColor = color;
+        if (mLabelPaint != null) {
+            mLabelPaint.setColor(color);
+        }
+        invalidateDecorations();
+        invalidate();
+    }
+
+    public void setLeaderLineColor(int color) {
+        mLeaderColor = color;
+        if (mLeaderPaint != null) {
+            mLeaderPaint.setColor(color);
+        }
+        invalidateDecorations();
+        invalidate();
+    }
+
+    private boolean hasOutsideLabels() {
+        return mOutsideLabels && mLabels != null && mLayoutMode == LAYOUT_PIE && !isGaugeLayout();
+    }
+
+    private TextPaint labelPaint() {
+        if (mLabelPaint == null) {
+            mLabelPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+            mLabelPaint.setTextSize(mLabelTextSize);
+            mLabelPaint.setColor(mLabelColor);
+        }
+        return mLabelPaint;
+    }
+
+    private Paint leaderPaint() {
+        if (mLeaderPaint == null) {
+            mLeaderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            mLeaderPaint.setStyle(Paint.Style.STROKE);
+            mLeaderPaint.setStrokeWidth(mLeaderWidth);
+            mLeaderPaint.setColor(mLeaderColor);
+        }
+        return mLeaderPaint;
+    }
+
+    private Paint rasterPaint() {
+        if (mRasterPaint == null) {
+            mRasterPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+        }
+        return mRasterPaint;
+    }
+
+    /**
+     * @return true once the chart, its labels or its raster were drawn
+     */
+    @VisibleForTesting
+    boolean hasPaints() {
+        return mRenderer.hasPaints() || mRasterPaint != null || mLabelPaint != null || mLeaderPaint != null;
+    }
+
+    private void measureLabels() {
+        float width = 0f;
+
+        if (mLabels != null) {
+            final TextPaint paint = labelPaint();
+            for (CharSequence label : mLabels) {
+                if (label != null) {
+                    width = Math.max(width, paint.measureText(label, 0, label.length()));
+                }
+            }
+        }
+        mLabelTextWidth = width;
+    }
+
+    /**
+     * @return how much the pie must shrink on each side so the widest label
+     * and its leader line fit beside it, using any width the pie leaves
+     * free, but never more than a quarter of the pie
+     */
+    private float getLabelSpace(int width, int height) {
+        if (!hasOutsideLabels()) {
+            return 0f;
+        }
+
+        final float minDimen = width > height ? height : width;
+        final float needed = mLeaderLength + mLabelTextWidth + LABEL_GAP - (width - minDimen) / 2f;
+
+        return Math.max(0f, Math.min(needed, minDimen / 4f));
+    }
+
+    /**
+     * Places the labels for the current geometry, reusing the last result
+     * unless the slices or the size changed.
+     */
+    private void layoutLabels() {
+        if (!hasOutsideLabels() || mGeometry == null) {
+            mLabelLayout = null;
+            return;
+        }
+
+        final float radius = mBounds.width() / 2f;
+        final TextPaint paint = labelPaint();
+        final float labelHeight = paint.descent() - paint.ascent();
+        final float bottom = getHeight();
+
+        if (mLabelLayout == null
+                || !mLabelLayout.isLayoutFor(mGeometry, radius, mLeaderLength, labelHeight, LABEL_GAP, 0f, bottom)) {
+            mLabelLayout = PieLabelLayout.compute(mGeometry, radius, mLeaderLength, labelHeight, LABEL_GAP, 0f, bottom);
+        }
+    }
+
+    private void drawLabels(Canvas canvas) {
+        final PieLabelLayout layout = mLabelLayout;
+        if (layout == null || !hasOutsideLabels()) {
+            return;
+        }
+
+        canvas.drawLines(layout.getLeaderLines(), leaderPaint());
+
+        final TextPaint paint = labelPaint();
+        final float baseline = -(paint.ascent() + paint.descent()) / 2f;
+        final int count = Math.min(layout.getCount(), mLabels.length);
+
+        for (int i = 0; i < count; i++) {
+            final CharSequence label = mLabels[i];
+
+            if (label == null || !layout.isVisible(i)) {
+                continue;
+            }
+
+            final boolean right = layout.isRightSide(i);
+            paint.setTextAlign(right ? Paint.Align.LEFT : Paint.Align.RIGHT);
+
+            final float x = layout.getLabelX(i) + (right ? LABEL_GAP : -LABEL_GAP);
+            canvas.drawText(label, 0, label.length(), x, layout.getLabelY(i) + baseline, paint);
+        }
+    }
+
+    /**
+     * Sets the hierarchy drawn in {@link #LAYOUT_SUNBURST}. The root's
+     * children form the innermost ring; the tree must be complete, as node
+     * totals are computed once.
+     */
+    public void setSunburstData(SunburstNode root) {
+        mSunburstRoot = root;
+        mRingValues = null;
+        invalidateSunburst();
+    }
+
+    /**
+     * Sets independent slice values per ring for {@link #LAYOUT_SUNBURST},
+     * innermost first, each ring spanning the whole angle range.
+     */
+    public void setRingData(float[][] ringValues) {
+        mRingValues = ringValues;
+        mSunburstRoot = null;
+        invalidateSunburst();
+    }
+
+    public SunburstNode getSunburstData() {
+        return mSunburstRoot;
+    }
+
+    /**
+     * @param maxRings deeper levels of the tree are not drawn
+     */
+    public void setMaxRings(int maxRings) {
+        mMaxRings = maxRings;
+        invalidateSunburst();
+    }
+
+    public int getMaxRings() {
+        return mMaxRings;
+    }
+
+    /**
+     * @param colors one per top-level branch, or per slice index for ring
+     *               data, lightened in each outer ring
+     */
+    public void setSunburstColors(int... colors) {
+        mSunburstColors = colors;
+        invalidateSunburst();
+    }
+
+    public void setOnSunburstClickListener(OnSunburstClickListener listener) {
+        mSunburstClickListener = listener;
+    }
+
+    /**
+     * @return the current sunburst layout, or null before the first layout
+     */
+    public SunburstGeometry getSunburstGeometry() {
+        return mSunburst;
+    }
+
+    private void invalidateSunburst() {
+        mSunburst = null;
+        mSunburstHighlightRing = -1;
+        mSunburstHighlightIndex = -1;
+
+        if (mLayoutMode == LAYOUT_SUNBURST) {
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    private void layoutSunburst() {
+        final float cx = getWidth() / 2f;
+        final float cy = getHeight() / 2f;
+        final float radius = Math.min(cx, cy) - mPadding;
+
+        if (mSunburstRoot != null) {
+            mSunburst = SunburstGeometry.fromTree(mSunburstRoot, cx, cy, mInnerRadius, radius,
+                    getLayoutAngleOffset(), mAngleRange, mMaxRings, SUNBURST_MIN_ARC_PX);
+        } else if (mRingValues != null) {
+            mSunburst = SunburstGeometry.fromRings(mRingValues, cx, cy, mInnerRadius, radius,
+                    getLayoutAngleOffset(), mAngleRange, SUNBURST_MIN_ARC_PX);
+        } else {
+            mSunburst = null;
+        }
+
+        mSunburstStyle = buildExportStyle();
+        if (mSunburstColors != null && mSunburstColors.length > 0) {
+            mSunburstStyle.setSliceColors(mSunburstColors);
+        }
+
+        invalidate();
+    }
+
+    private boolean onSunburstTouchEvent(MotionEvent ev) {
+        switch (ev.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                mTouchStartX = ev.getX();
+                mTouchStartY = ev.getY();
+                return mSunburst != null && mSunburst.hitTest(ev.getX(), ev.getY(), mSunburstHit);
+
+            case MotionEvent.ACTION_UP: {
+                final float dx = ev.getX() - mTouchStartX;
+                final float dy = ev.getY() - mTouchStartY;
+
+                if (mSunburst == null || dx * dx + dy * dy > mTouchSlop * mTouchSlop
+                        || !mSunburst.hitTest(ev.getX(), ev.getY(), mSunburstHit)) {
+                    return false;
+                }
+
+                final int ring = mSunburstHit[0];
+                final int index = mSunburstHit[1];
+
+                mSunburstHighlightRing = ring;
+                mSunburstHighlightIndex = index;
+                invalidate();
+
+                if (mSunburstClickListener != null) {
+                    mSunburstClickListener.onNodeClick(ring, index, mSunburst.getNode(ring, index));
+                }
+                return true;
+            }
+
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        final SavedState state = new SavedState(super.onSaveInstanceState());
+        state.data = saveState();
+        return state;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+
+        final SavedState saved = (SavedState) state;
+        super.onRestoreInstanceState(saved.getSuperState());
+        restoreState(saved.data);
+    }
+
+    /**
+     * Encodes slice values, angles, highlighted slices, rotation and the
+     * reveal progress in the compact {@link PieState} format.
+     */
+    public byte[] saveState() {
+        final int childs = getChildCount();
+
+        final float[] values = new float[childs];
+        final float[] starts = new float[childs];
+        final float[] ends = new float[childs];
+        final BitSet highlighted = new BitSet(childs);
+
+        final boolean revealing = isAnimationOnly && mSweeps != null && mSweeps.size() == childs;
+        final float[] sweeps = revealing ? new float[childs] : null;
+
+        for (int i = 0; i < childs; i++) {
+            final View child = getChildAt(i);
+            final LayoutParams lp = layoutParams(child);
+            final ViewModel model = (ViewModel) child.getTag();
+
+            values[i] = getSlicePercentage(i, child);
+            starts[i] = lp.startAngle;
+            ends[i] = lp.endAngle;
+            highlighted.set(i, model != null && model.isNeedHighlight());
+
+            if (revealing) {
+                sweeps[i] = mSweeps.get(i);
+            }
+        }
+
+        return new PieState(values, starts, ends, highlighted, mRawRotationAngle, sweeps, mSelectedIndex)
+                .encode();
+    }
+
+    /**
+     * Puts the chart back into the state returned by {@link #saveState()}. A
+     * finished chart is shown without replaying the reveal; one saved
+     * mid-reveal continues from where it was.
+     *
+     * @return false if the data is unreadable or was saved with a different
+     * number of slices, in which case nothing is changed
+     */
+    public boolean restoreState(byte[] data) {
+        final PieState state;
+        try {
+            state = PieState.decode(data);
+        } catch (IllegalArgumentException e) {
+            Log.w("CircleLayout", "Cannot restore state", e);
+            return false;
+        }
+
+        final int childs = getChildCount();
+        if (state.getCount() != childs) {
+            return false;
+        }
+
+        for (int i = 0; i < childs; i++) {
+            final View child = getChildAt(i);
+            final LayoutParams lp = layoutParams(child);
+            final ViewModel model = (ViewModel) child.getTag();
+
+            if (model != null) {
+                model.setPercentage(state.getValue(i));
+                model.setNeedHighlight(state.isHighlighted(i));
+            }
+            lp.startAngle = state.getStartAngle(i);
+            lp.endAngle = state.getEndAngle(i);
+        }
+
+        mSweeps = new ArrayList<>(childs);
+        for (int i = 0; i < childs; i++) {
+            mSweeps.add(state.isRevealing() ? state.getRevealSweep(i) : 0f);
+        }
+        isListFloat = false;
+        isAnimationOnly = state.isRevealing();
+
+        stopRotation(false);
+        mInMotion = false;
+        mRawRotationAngle = state.getRotation();
+
+        // Shown already selected, the selection animation has played before
+        final int selected = state.getSelectedIndex();
+        mSelectedIndex = selected < childs ? selected : -1;
+        mSelectionAnimating = false;
+        mSelectionLayersReady = false;
+
+        requestLayout();
+        invalidate();
+        return true;
+    }
+
+    /**
+     * Writes {@link #saveState()} to a file, e.g. to survive process death
+     * beyond what the saved instance state bundle keeps.
+     */
+    public void saveState(File file) throws IOException {
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.getChannel().write(ByteBuffer.wrap(saveState()));
+        } finally {
+            out.close();
+        }
+    }
+
+    public boolean restoreState(File file) throws IOException {
+        final RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) in.length());
+            final FileChannel channel = in.getChannel();
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading
+            }
+            return restoreState(buffer.array());
+        } finally {
+            in.close();
+        }
+    }
+
+    public static class LayoutParams extends ViewGroup.LayoutParams {
+
+        public float startAngle;
+        public float endAngle;
+
+        public float weight = 1f;
+
+        /** set while the child's ViewModel has an image URI */
+        SliceImage image;
+        /** the child's last drawing, replayed until it invalidates */
+        Picture content;
+        /** incremented each time content is recorded again */
+        int contentVersion;
+
+        public LayoutParams(int width, int height) {
+            super(width, height);
+        }
+
+        public LayoutParams(Context context, AttributeSet attrs) {
+            super(context, attrs);
+        }
+    }
+
+    /**
+     * A slice's image and the shader that maps it, center-cropped, onto the
+     * bounding box of its wedge.
+     */
+    private static final class SliceImage {
+
+        /** image sizes are requested in steps of this many pixels */
+        private static final int SIZE_STEP = 32;
+
+        final String uri;
+        int requestedWidth;
+        int requestedHeight;
+
+        Bitmap bitmap;
+        BitmapShader shader;
+        /** null until the image is loaded */
+        Paint paint;
+
+        private final RectF mBounds = new RectF();
+        private final Matrix mMatrix = new Matrix();
+
+        SliceImage(String uri) {
+            this.uri = uri;
+        }
+
+        static int roundSize(float size) {
+            return (int) Math.ceil(size / SIZE_STEP) * SIZE_STEP;
+        }
+
+        void setBitmap(Bitmap bitmap) {
+            this.bitmap = bitmap;
+            shader = new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+            paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+            paint.setShader(shader);
+            updateMatrix();
+        }
+
+        void setBounds(RectF bounds) {
+            mBounds.set(bounds);
+            updateMatrix();
+        }
+
+        private void updateMatrix() {
+            if (shader == null) {
+                return;
+            }
+
+            final float width = bitmap.getWidth();
+            final float height = bitmap.getHeight();
+            final float scale = Math.max(mBounds.width() / width, mBounds.height() / height);
+
+            mMatrix.setScale(scale, scale);
+            mMatrix.postTranslate(mBounds.left + (mBounds.width() - width * scale) / 2f,
+                    mBounds.top + (mBounds.height() - height * scale) / 2f);
+            shader.setLocalMatrix(mMatrix);
+        }
+    }
+
+    static class SavedState extends BaseSavedState {
+
+        byte[] data;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            data = in.createByteArray();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeByteArray(data);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+}
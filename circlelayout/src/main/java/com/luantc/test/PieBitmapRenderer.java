@@ -0,0 +1,155 @@
+package com.luantc.test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.RectF;
+import android.os.Process;
+
+/**
+ * Renders pie charts to Bitmaps on background threads, without a
+ * {@link CircleLayout} attached to a window. Useful for notifications, app
+ * widgets and share images.
+ *
+ * Slices are composited the same way CircleLayout does it: the slice content
+ * is drawn into a scratch buffer, masked to its wedge with
+ * {@link PieRenderer#drawWedge}, and the dividers and inner circle go on top.
+ * At most maxConcurrency charts are rendered at once, and scratch and result
+ * bitmaps are recycled through a small pool.
+ */
+public class PieBitmapRenderer {
+
+    /**
+     * Supplies the content of each slice. Called on a worker thread, so it
+     * must not touch Views or other UI-thread state.
+     */
+    public interface SliceContent {
+        /**
+         * @param bounds the square the pie is inscribed in; everything outside
+         * the slice's wedge is masked away afterwards
+         */
+        void drawSlice(Canvas canvas, int index, RectF bounds);
+    }
+
+    private final ExecutorService mExecutor;
+    private final BitmapPool mPool;
+
+    public PieBitmapRenderer(int maxConcurrency, int maxPooledBitmaps) {
+        mExecutor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new RenderThreadFactory());
+        ((ThreadPoolExecutor) mExecutor).allowCoreThreadTimeOut(true);
+        mPool = new BitmapPool(maxPooledBitmaps);
+    }
+
+    /**
+     * Queues a chart for rendering.
+     *
+     * @param params geometry inputs, see {@link CircleLayout#getPieParams(int, int)}
+     * @param style dividers and inner circle, see {@link CircleLayout#copyRenderer()}.
+     *              Copied before this method returns.
+     * @return the rendered bitmap; pass it to {@link #recycle(Bitmap)} once it
+     * is no longer needed to let later renders reuse it
+     */
+    public Future<Bitmap> render(final PieSnapshot snapshot, final PrecomputedPie.Params params,
+                                 PieRenderer style, final SliceContent content) {
+        final PieRenderer renderer = new PieRenderer(style);
+
+        return mExecutor.submit(new Callable<Bitmap>() {
+            @Override
+            public Bitmap call() throws Exception {
+                return renderNow(snapshot, params, renderer, content);
+            }
+        });
+    }
+
+    private Bitmap renderNow(PieSnapshot snapshot, PrecomputedPie.Params params,
+                             PieRenderer renderer, SliceContent content) {
+        final PrecomputedPie pie = PrecomputedPie.create(snapshot, params);
+
+        final int width = params.getWidth();
+        final int height = params.getHeight();
+
+        final Bitmap result = mPool.obtain(width, height);
+        final Bitmap src = mPool.obtain(width, height);
+        final Bitmap dst = mPool.obtain(width, height);
+
+        try {
+            final Canvas canvas = new Canvas(result);
+            final Canvas srcCanvas = new Canvas(src);
+            final Canvas dstCanvas = new Canvas(dst);
+
+            final RectF bounds = new RectF(pie.getBoundsLeft(), pie.getBoundsTop(),
+                    pie.getBoundsRight(), pie.getBoundsBottom());
+
+            final int count = pie.getCount();
+
+            for (int i = 0; i < count; i++) {
+                srcCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+                dstCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+
+                content.drawSlice(srcCanvas, i, bounds);
+
+                renderer.drawWedge(dstCanvas, src, bounds, pie.getStartAngle(i),
+                        pie.getEndAngle(i) - pie.getStartAngle(i));
+
+                canvas.drawBitmap(dst, 0f, 0f, null);
+            }
+
+            if (count > 1) {
+                renderer.drawDividers(canvas, pie.getDividers());
+            }
+
+            renderer.clearHole(canvas, width / 2f, height / 2f);
+            renderer.drawInnerCircle(canvas, width / 2f, height / 2f, params.innerRadius);
+
+            return result;
+        } catch (RuntimeException e) {
+            mPool.release(result);
+            throw e;
+        } finally {
+            mPool.release(src);
+            mPool.release(dst);
+        }
+    }
+
+    public void recycle(Bitmap bitmap) {
+        mPool.release(bitmap);
+    }
+
+    /**
+     * Stops accepting new charts and drops the pooled bitmaps. Charts already
+     * queued are still rendered.
+     */
+    public void shutdown() {
+        mExecutor.shutdown();
+        mPool.clear();
+    }
+
+    private static class RenderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger mCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    r.run();
+                }
+            }, "PieRender-" + mCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.luantc.test;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+/**
+ * On-disk LRU of composited pie rasters, so a chart shown in a previous run
+ * can be drawn on the first frame after a cold start instead of being
+ * composited and revealed again.
+ *
+ * Entries are raw ARGB_8888 pixels behind a small header and are read and
+ * written on a single background thread. Reads memory-map the file and copy
+ * the pixels straight into a Bitmap. Keys that were looked up and not found
+ * are remembered until they are written, so they are not read again.
+ *
+ * Keys are {@link PieRenderCache.Key}s; their content key must have a
+ * toString() that is stable across runs, e.g. a String id.
+ */
+public class PieDiskCache {
+
+    private static final String TAG = "PieDiskCache";
+
+    private static final int MAGIC = 0x50494531; // "PIE1"
+    private static final String SUFFIX = ".pie";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File mDirectory;
+    private final long mMaxBytes;
+
+    /** file name to size, in access order; guarded by itself */
+    private final LinkedHashMap<String, Long> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long mSize;
+    /** names of entries looked up and not found; guarded by mEntries */
+    private final HashSet<String> mMisses = new HashSet<>();
+
+    private final ExecutorService mWriter;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Called on the UI thread with the result of {@link #load}.
+     */
+    public interface Callback {
+        /**
+         * @param bitmap the stored raster, or null if there is none for the key
+         */
+        void onLoaded(PieRenderCache.Key key, Bitmap bitmap);
+    }
+
+    public PieDiskCache(File directory, long maxBytes) {
+        mDirectory = directory;
+        mMaxBytes = maxBytes;
+
+        mWriter = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        r.run();
+                    }
+                }, TAG);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        mWriter.execute(new Runnable() {
+            @Override
+            public void run() {
+                loadIndex();
+            }
+        });
+    }
+
+    private void loadIndex() {
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            Log.w(TAG, "Cannot create " + mDirectory);
+            return;
+        }
+
+        final File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        // Oldest first, so the access-ordered map starts in LRU order
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                final long diff = a.lastModified() - b.lastModified();
+                return diff < 0 ? -1 : diff > 0 ? 1 : 0;
+            }
+        });
+
+        synchronized (mEntries) {
+            for (File file : files) {
+                if (file.getName().endsWith(SUFFIX) && !mEntries.containsKey(file.getName())) {
+                    mEntries.put(file.getName(), file.length());
+                    mSize += file.length();
+                }
+            }
+        }
+        trim();
+    }
+
+    /**
+     * Reads a raster in the background, after any pending writes.
+     *
+     * @return false, without calling back, if the key is already known to be
+     * missing
+     */
+    public boolean load(final PieRenderCache.Key key, final Callback callback) {
+        synchronized (mEntries) {
+            if (mMisses.contains(fileName(key))) {
+                return false;
+            }
+        }
+
+        mWriter.execute(new Runnable() {
+            @Override
+            public void run() {
+                final Bitmap bitmap = get(key);
+
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onLoaded(key, bitmap);
+                    }
+                });
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Reads a raster synchronously, on the calling thread. Prefer
+     * {@link #load} on the UI thread.
+     *
+     * @return the cached raster, or null if there is none for the key
+     */
+    public Bitmap get(PieRenderCache.Key key) {
+        final String name = fileName(key);
+        final File file = new File(mDirectory, name);
+
+        final Bitmap bitmap = read(key, name, file);
+        if (bitmap == null) {
+            synchronized (mEntries) {
+                mMisses.add(name);
+            }
+        }
+        return bitmap;
+    }
+
+    private Bitmap read(PieRenderCache.Key key, String name, File file) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            final FileChannel channel = raf.getChannel();
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC) {
+                return null;
+            }
+
+            final int width = buffer.getInt();
+            final int height = buffer.getInt();
+            final byte[] keyBytes = new byte[buffer.getInt()];
+            buffer.get(keyBytes);
+
+            // The file name is only a hash, so make sure this is our key
+            if (width != key.getWidth() || height != key.getHeight()
+                    || !key.toString().equals(new String(keyBytes, UTF_8))
+                    || buffer.remaining() != width * height * 4) {
+                return null;
+            }
+
+            final Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            bitmap.copyPixelsFromBuffer(buffer);
+
+            synchronized (mEntries) {
+                mEntries.get(name);
+            }
+            touch(file);
+
+            return bitmap;
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot read " + file, e);
+            return null;
+        } finally {
+            closeQuietly(raf);
+        }
+    }
+
+    /**
+     * Writes a raster in the background. The bitmap must not be recycled or
+     * modified afterwards; pass a copy if it is a live buffer.
+     */
+    public void put(final PieRenderCache.Key key, final Bitmap bitmap) {
+        mWriter.execute(new Runnable() {
+            @Override
+            public void run() {
+                write(key, bitmap);
+            }
+        });
+    }
+
+    private void write(PieRenderCache.Key key, Bitmap bitmap) {
+        if (bitmap.getConfig() != Bitmap.Config.ARGB_8888) {
+            return;
+        }
+
+        final String name = fileName(key);
+        final File file = new File(mDirectory, name);
+        final File temp = new File(mDirectory, name + ".tmp");
+
+        final byte[] keyBytes = key.toString().getBytes(UTF_8);
+        final int pixelBytes = bitmap.getWidth() * bitmap.getHeight() * 4;
+
+        final ByteBuffer buffer = ByteBuffer.allocate(16 + keyBytes.length + pixelBytes);
+        buffer.putInt(MAGIC);
+        buffer.putInt(bitmap.getWidth());
+        buffer.putInt(bitmap.getHeight());
+        buffer.putInt(keyBytes.length);
+        buffer.put(keyBytes);
+        bitmap.copyPixelsToBuffer(buffer);
+        buffer.flip();
+
+        FileOutputStream out = null;
+        try {
+            out = new FileOutputStream(temp);
+            final FileChannel channel = out.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            out.close();
+            out = null;
+
+            if (!temp.renameTo(file)) {
+                throw new IOException("Cannot rename " + temp);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot write " + file, e);
+            temp.delete();
+            return;
+        } finally {
+            closeQuietly(out);
+        }
+
+        synchronized (mEntries) {
+            mMisses.remove(name);
+            final Long previous = mEntries.put(name, file.length());
+            if (previous != null) {
+                mSize -= previous;
+            }
+            mSize += file.length();
+        }
+        trim();
+    }
+
+    private void trim() {
+        while (true) {
+            final String eldest;
+
+            synchronized (mEntries) {
+                if (mSize <= mMaxBytes || mEntries.isEmpty()) {
+                    return;
+                }
+
+                final Iterator<Map.Entry<String, Long>> it = mEntries.entrySet().iterator();
+                final Map.Entry<String, Long> entry = it.next();
+                eldest = entry.getKey();
+                mSize -= entry.getValue();
+                it.remove();
+            }
+
+            new File(mDirectory, eldest).delete();
+        }
+    }
+
+    private void touch(final File file) {
+        mWriter.execute(new Runnable() {
+            @Override
+            public void run() {
+                file.setLastModified(System.currentTimeMillis());
+            }
+        });
+    }
+
+    /**
+     * Deletes every entry, in the background.
+     */
+    public void clear() {
+        mWriter.execute(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (mEntries) {
+                    for (String name : mEntries.keySet()) {
+                        new File(mDirectory, name).delete();
+                    }
+                    mEntries.clear();
+                    mSize = 0;
+                }
+            }
+        });
+    }
+
+    public long getSizeBytes() {
+        synchronized (mEntries) {
+            return mSize;
+        }
+    }
+
+    public long getMaxBytes() {
+        return mMaxBytes;
+    }
+
+    private static String fileName(PieRenderCache.Key key) {
+        return Integer.toHexString(key.toString().hashCode()) + "_" + key.getWidth() + "x" + key.getHeight()
+                + SUFFIX;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.luantc.test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.BitSet;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+
+import com.luantc.test.core.PieGeometry;
+import com.luantc.test.core.PiePainter;
+import com.luantc.test.core.PieStyle;
+import com.luantc.test.core.StreamingPngWriter;
+
+/**
+ * Exports a pie as a PNG of any size without a full-size bitmap. The image is
+ * rendered one square tile at a time, each tile only painting the wedges that
+ * intersect it, and finished rows of tiles are streamed to a
+ * {@link StreamingPngWriter}. Peak memory is one tile bitmap plus one band of
+ * pixels the width of the image and the height of a tile.
+ *
+ * Safe to call off the UI thread.
+ */
+public final class PiePosterExporter {
+
+    private PiePosterExporter() {
+    }
+
+    /**
+     * @param geometry the pie laid out at the export size
+     * @param highlighted index of the slice to outline, or -1
+     * @param tileSize edge of the square tiles, e.g. 512
+     */
+    public static void export(PieGeometry geometry, PieStyle style, int highlighted,
+                              int width, int height, int tileSize, OutputStream out) throws IOException {
+        final BitSet set = new BitSet();
+        if (highlighted >= 0) {
+            set.set(highlighted);
+        }
+        export(geometry, style, set, width, height, tileSize, out);
+    }
+
+    /**
+     * @param geometry the pie laid out at the export size
+     * @param highlighted indices of the slices to outline
+     * @param tileSize edge of the square tiles, e.g. 512
+     */
+    public static void export(PieGeometry geometry, PieStyle style, BitSet highlighted,
+                              int width, int height, int tileSize, OutputStream out) throws IOException {
+        final StreamingPngWriter png = new StreamingPngWriter(out, width, height);
+
+        final Bitmap tile = Bitmap.createBitmap(tileSize, tileSize, Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(tile);
+        final CanvasPieCanvas pieCanvas = new CanvasPieCanvas(canvas);
+
+        final int[] band = new int[width * tileSize];
+
+        try {
+            for (int top = 0; top < height; top += tileSize) {
+                final int bandHeight = Math.min(tileSize, height - top);
+
+                for (int left = 0; left < width; left += tileSize) {
+                    final int tileWidth = Math.min(tileSize, width - left);
+
+                    canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+                    canvas.save();
+                    canvas.translate(-left, -top);
+                    PiePainter.paint(geometry, style, pieCanvas, highlighted,
+                            left, top, left + tileWidth, top + bandHeight);
+                    canvas.restore();
+
+                    tile.getPixels(band, left, width, 0, 0, tileWidth, bandHeight);
+                }
+
+                for (int y = 0; y < bandHeight; y++) {
+                    png.writeRow(band, y * width);
+                }
+            }
+
+            png.finish();
+        } finally {
+            tile.recycle();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.luantc.test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+/**
+ * Process-wide LRU of fully composited pie rasters, shared by every
+ * {@link CircleLayout} that has a render cache key. A recycled row that is
+ * rebound to data it has shown before draws the cached bitmap instead of
+ * compositing every slice again.
+ *
+ * The budget is in bytes and defaults to an eighth of the heap.
+ */
+public class PieRenderCache {
+
+    private static PieRenderCache sInstance;
+
+    private final LruCache<Key, Bitmap> mCache;
+
+    private final AtomicInteger mHits = new AtomicInteger();
+    private final AtomicInteger mMisses = new AtomicInteger();
+
+    public static synchronized PieRenderCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new PieRenderCache((int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8));
+        }
+        return sInstance;
+    }
+
+    /**
+     * Replaces the shared cache with an empty one of the given budget.
+     */
+    public static synchronized void setMaxBytes(int maxBytes) {
+        if (sInstance != null) {
+            sInstance.evictAll();
+        }
+        sInstance = new PieRenderCache(maxBytes);
+    }
+
+    private PieRenderCache(int maxBytes) {
+        mCache = new LruCache<Key, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Key key, Bitmap value) {
+                return value.getRowBytes() * value.getHeight();
+            }
+        };
+    }
+
+    /**
+     * Lookups are not counted in the hit rate, as a chart looks its key up on
+     * every frame; see {@link #recordHit()} and {@link #recordMiss()}.
+     */
+    public Bitmap get(Key key) {
+        return mCache.get(key);
+    }
+
+    public void put(Key key, Bitmap bitmap) {
+        mCache.put(key, bitmap);
+    }
+
+    public boolean contains(Key key) {
+        return mCache.get(key) != null;
+    }
+
+    /**
+     * Counts a chart that was first shown from the cache.
+     */
+    void recordHit() {
+        mHits.incrementAndGet();
+    }
+
+    /**
+     * Counts a chart that had to be rendered, once its final frame is stored.
+     */
+    void recordMiss() {
+        mMisses.incrementAndGet();
+    }
+
+    public void evictAll() {
+        mCache.evictAll();
+    }
+
+    public int getSizeBytes() {
+        return mCache.size();
+    }
+
+    public int getMaxBytes() {
+        return mCache.maxSize();
+    }
+
+    public int getHitCount() {
+        return mHits.get();
+    }
+
+    public int getMissCount() {
+        return mMisses.get();
+    }
+
+    public float getHitRate() {
+        final int hits = mHits.get();
+        final int total = hits + mMisses.get();
+        return total == 0 ? 0f : hits / (float) total;
+    }
+
+    /**
+     * Identifies a raster by what the caller says is in the slices, the slice
+     * geometry, the view size and the decoration style.
+     */
+    public static final class Key {
+
+        private final Object mContentKey;
+        private final int mDataHash;
+        private final int mWidth;
+        private final int mHeight;
+        private final int mStyleHash;
+
+        public Key(Object contentKey, int dataHash, int width, int height, int styleHash) {
+            mContentKey = contentKey;
+            mDataHash = dataHash;
+            mWidth = width;
+            mHeight = height;
+            mStyleHash = styleHash;
+        }
+
+        public int getWidth() {
+            return mWidth;
+        }
+
+        public int getHeight() {
+            return mHeight;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key other = (Key) o;
+            return mDataHash == other.mDataHash
+                    && mWidth == other.mWidth
+                    && mHeight == other.mHeight
+                    && mStyleHash == other.mStyleHash
+                    && mContentKey.equals(other.mContentKey);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mContentKey.hashCode();
+            result = 31 * result + mDataHash;
+            result = 31 * result + mWidth;
+            result = 31 * result + mHeight;
+            result = 31 * result + mStyleHash;
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return mContentKey + "_" + Integer.toHexString(mDataHash) + "_" + mWidth + "x" + mHeight
+                    + "_" + Integer.toHexString(mStyleHash);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.luantc.test;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.RectF;
+import android.graphics.Xfermode;
+import android.support.annotation.VisibleForTesting;
+
+/**
+ * The wedge, divider and inner circle drawing used by {@link CircleLayout},
+ * usable against any Canvas.
+ *
+ * An instance owns mutable Paints and must only be used by one thread at a
+ * time; use the copy constructor to hand a configured renderer to a worker.
+ * The Paints are created on first use, so a renderer that never draws only
+ * holds its style values.
+ */
+public class PieRenderer {
+
+    private int mDividerColor = Color.BLACK;
+    private float mDividerWidth;
+    private int mInnerCircleColor = Color.BLACK;
+    private int mHighlightColor = Color.WHITE;
+    private float mHighlightWidth = 5f;
+
+    private Paint mDividerPaint;
+    private Paint mCirclePaint;
+    private Paint mBorderPaint;
+
+    /** masking state, created on the first wedge a renderer draws */
+    private Paint mMaskPaint;
+    private Xfermode mXfer;
+    private Xfermode mClear;
+
+    private boolean mHasInnerCircle;
+
+    /** radius of the unpainted center, 0 for full wedges */
+    private float mHoleRadius;
+    private final Path mRingPath = new Path();
+    private final RectF mHoleBounds = new RectF();
+
+    public PieRenderer() {
+    }
+
+    public PieRenderer(PieRenderer other) {
+        mDividerColor = other.mDividerColor;
+        mDividerWidth = other.mDividerWidth;
+        mInnerCircleColor = other.mInnerCircleColor;
+        mHighlightColor = other.mHighlightColor;
+        mHighlightWidth = other.mHighlightWidth;
+        mHasInnerCircle = other.mHasInnerCircle;
+        mHoleRadius = other.mHoleRadius;
+    }
+
+    public void setDividerColor(int color) {
+        mDividerColor = color;
+        if (mDividerPaint != null) {
+            mDividerPaint.setColor(color);
+        }
+    }
+
+    public void setDividerWidth(float width) {
+        mDividerWidth = width;
+        if (mDividerPaint != null) {
+            mDividerPaint.setStrokeWidth(width);
+        }
+    }
+
+    public int getDividerColor() {
+        return mDividerColor;
+    }
+
+    public void setInnerCircleColor(int color) {
+        mInnerCircleColor = color;
+        if (mCirclePaint != null) {
+            mCirclePaint.setColor(color);
+        }
+        mHasInnerCircle = true;
+    }
+
+    public void clearInnerCircle() {
+        mHasInnerCircle = false;
+    }
+
+    public boolean hasInnerCircle() {
+        return mHasInnerCircle;
+    }
+
+    public int getInnerCircleColor() {
+        return mInnerCircleColor;
+    }
+
+    public void setHighlightColor(int color) {
+        mHighlightColor = color;
+        if (mBorderPaint != null) {
+            mBorderPaint.setColor(color);
+        }
+    }
+
+    public void setHighlightWidth(float width) {
+        mHighlightWidth = width;
+        if (mBorderPaint != null) {
+            mBorderPaint.setStrokeWidth(width);
+        }
+    }
+
+    public int getHighlightColor() {
+        return mHighlightColor;
+    }
+
+    public float getHighlightWidth() {
+        return mHighlightWidth;
+    }
+
+    /**
+     * Makes wedges rings around a hole of the given radius at the center of
+     * their bounds. Nothing is drawn inside the hole, so whatever is behind
+     * the chart shows through and the inner circle is not needed.
+     *
+     * @param radius 0 for full wedges
+     */
+    public void setHoleRadius(float radius) {
+        mHoleRadius = radius;
+    }
+
+    public float getHoleRadius() {
+        return mHoleRadius;
+    }
+
+    /**
+     * Keeps the pixels of src that fall inside the wedge and draws them into
+     * dst. Expects dst to be cleared.
+     */
+    public void drawWedge(Canvas dst, Bitmap src, RectF bounds, float startAngle, float sweepAngle) {
+        drawWedge(dst, src, 0f, 0f, bounds, startAngle, sweepAngle);
+    }
+
+    /**
+     * Same as {@link #drawWedge(Canvas, Bitmap, RectF, float, float)} for a
+     * src that covers only part of the chart, its top left corner being at
+     * (srcLeft, srcTop) in the coordinates of bounds and dst.
+     */
+    public void drawWedge(Canvas dst, Bitmap src, float srcLeft, float srcTop, RectF bounds,
+                          float startAngle, float sweepAngle) {
+        ensureMaskPaint();
+
+        mMaskPaint.setXfermode(null);
+        mMaskPaint.setColor(Color.BLACK);
+
+        if (mHoleRadius > 0f) {
+            dst.drawPath(ring(bounds, startAngle, sweepAngle), mMaskPaint);
+        } else {
+            dst.drawArc(bounds, startAngle, sweepAngle, true, mMaskPaint);
+        }
+
+        mMaskPaint.setXfermode(mXfer);
+        dst.drawBitmap(src, srcLeft, srcTop, mMaskPaint);
+    }
+
+    /**
+     * Fills the wedge with the paint, e.g. one with a BitmapShader, without
+     * a source layer or mask pass.
+     */
+    public void fillWedge(Canvas canvas, Paint paint, RectF bounds, float startAngle, float sweepAngle) {
+        if (mHoleRadius > 0f) {
+            canvas.drawPath(ring(bounds, startAngle, sweepAngle), paint);
+        } else {
+            canvas.drawArc(bounds, startAngle, sweepAngle, true, paint);
+        }
+    }
+
+    public void drawHighlight(Canvas canvas, RectF bounds, float startAngle, float sweepAngle) {
+        drawBorder(canvas, bounds, startAngle, sweepAngle);
+    }
+
+    /**
+     * @param alpha 0..255, applied on top of the highlight color's own alpha
+     */
+    public void drawHighlight(Canvas canvas, RectF bounds, float startAngle, float sweepAngle, int alpha) {
+        final Paint paint = borderPaint();
+        paint.setAlpha(Color.alpha(mHighlightColor) * alpha / 255);
+
+        drawBorder(canvas, bounds, startAngle, sweepAngle);
+
+        paint.setColor(mHighlightColor);
+    }
+
+    private void drawBorder(Canvas canvas, RectF bounds, float startAngle, float sweepAngle) {
+        if (mHoleRadius > 0f) {
+            canvas.drawPath(ring(bounds, startAngle, sweepAngle), borderPaint());
+        } else {
+            canvas.drawArc(bounds, startAngle, sweepAngle, true, borderPaint());
+        }
+    }
+
+    private Paint borderPaint() {
+        if (mBorderPaint == null) {
+            mBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            mBorderPaint.setDither(true);
+            mBorderPaint.setColor(mHighlightColor);
+            mBorderPaint.setStyle(Paint.Style.STROKE);
+            mBorderPaint.setStrokeJoin(Paint.Join.ROUND);
+            mBorderPaint.setStrokeCap(Paint.Cap.ROUND);
+            mBorderPaint.setStrokeWidth(mHighlightWidth);
+        }
+        return mBorderPaint;
+    }
+
+    private Paint dividerPaint() {
+        if (mDividerPaint == null) {
+            mDividerPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            mDividerPaint.setColor(mDividerColor);
+            mDividerPaint.setStrokeWidth(mDividerWidth);
+        }
+        return mDividerPaint;
+    }
+
+    private Paint circlePaint() {
+        if (mCirclePaint == null) {
+            mCirclePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            mCirclePaint.setColor(mInnerCircleColor);
+        }
+        return mCirclePaint;
+    }
+
+    /**
+     * @return true once anything was drawn that needed a Paint
+     */
+    @VisibleForTesting
+    boolean hasPaints() {
+        return mDividerPaint != null || mCirclePaint != null || mBorderPaint != null || mMaskPaint != null;
+    }
+
+    @VisibleForTesting
+    boolean hasXfermodes() {
+        return mXfer != null || mClear != null;
+    }
+
+    /**
+     * @return the annular sector between the hole and the bounds' oval
+     */
+    private Path ring(RectF bounds, float startAngle, float sweepAngle) {
+        final float cx = bounds.centerX();
+        final float cy = bounds.centerY();
+        mHoleBounds.set(cx - mHoleRadius, cy - mHoleRadius, cx + mHoleRadius, cy + mHoleRadius);
+
+        final Path path = mRingPath;
+        path.reset();
+
+        if (sweepAngle >= 360f) {
+            path.setFillType(Path.FillType.EVEN_ODD);
+            path.addOval(bounds, Path.Direction.CW);
+            path.addOval(mHoleBounds, Path.Direction.CW);
+            return path;
+        }
+
+        path.setFillType(Path.FillType.WINDING);
+        path.arcTo(bounds, startAngle, sweepAngle, true);
+        path.arcTo(mHoleBounds, startAngle + sweepAngle, -sweepAngle);
+        path.close();
+        return path;
+    }
+
+    private void ensureMaskPaint() {
+        if (mMaskPaint == null) {
+            mMaskPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            mXfer = new PorterDuffXfermode(PorterDuff.Mode.SRC_IN);
+            mClear = new PorterDuffXfermode(PorterDuff.Mode.CLEAR);
+        }
+    }
+
+    public void drawDivider(Canvas canvas, float centerX, float centerY, float radius, float angle) {
+        final double radians = Math.toRadians(angle);
+
+        canvas.drawLine(centerX, centerY,
+                radius * (float) Math.cos(radians) + centerX,
+                radius * (float) Math.sin(radians) + centerY,
+                dividerPaint());
+    }
+
+    /**
+     * @param lines x0, y0, x1, y1 for each divider
+     */
+    public void drawDividers(Canvas canvas, float[] lines) {
+        canvas.drawLines(lines, dividerPaint());
+    }
+
+    /**
+     * Clears the hole, e.g. of dividers that were drawn from the center.
+     */
+    public void clearHole(Canvas canvas, float centerX, float centerY) {
+        if (mHoleRadius > 0f) {
+            ensureMaskPaint();
+
+            mMaskPaint.setXfermode(mClear);
+            canvas.drawCircle(centerX, centerY, mHoleRadius, mMaskPaint);
+            mMaskPaint.setXfermode(null);
+        }
+    }
+
+    public void drawInnerCircle(Canvas canvas, float centerX, float centerY, float radius) {
+        if (mHasInnerCircle && mHoleRadius <= 0f) {
+            canvas.drawCircle(centerX, centerY, radius, circlePaint());
+        }
+    }
+}
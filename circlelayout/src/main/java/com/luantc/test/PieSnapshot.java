@@ -0,0 +1,60 @@
+package com.luantc.test;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of slice values handed to {@link CircleLayout} by a
+ * {@link SliceDataPublisher}. Safe to read from any thread.
+ */
+public final class PieSnapshot {
+
+    private final float[] mValues;
+    private final float mTotal;
+    private final long mVersion;
+
+    PieSnapshot(float[] values, long version) {
+        mValues = values;
+        mVersion = version;
+
+        float total = 0f;
+        for (float value : values) {
+            total += value;
+        }
+        mTotal = total;
+    }
+
+    public static PieSnapshot of(float... values) {
+        return new PieSnapshot(Arrays.copyOf(values, values.length), 0L);
+    }
+
+    public int getCount() {
+        return mValues.length;
+    }
+
+    public float getValue(int index) {
+        return mValues[index];
+    }
+
+    public float getTotal() {
+        return mTotal;
+    }
+
+    /**
+     * @return the slice value as a share of the total, in the 0..100 range
+     * used by {@link ViewModel#getPercentage()}
+     */
+    public float getPercentage(int index) {
+        if (mTotal <= 0f) {
+            return 0f;
+        }
+        return mValues[index] / mTotal * 100f;
+    }
+
+    /**
+     * @return monotonically increasing publish counter, 0 for snapshots that
+     * were not produced by a publisher
+     */
+    public long getVersion() {
+        return mVersion;
+    }
+}
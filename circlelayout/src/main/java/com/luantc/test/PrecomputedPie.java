@@ -0,0 +1,230 @@
+package com.luantc.test;
+
+import com.luantc.test.core.PieGeometry;
+
+/**
+ * Slice geometry for a {@link CircleLayout}, computed ahead of time.
+ *
+ * All the math onLayout and drawDividers would otherwise do on the UI thread
+ * (normalizing values, accumulating angles, the cos/sin for child centers
+ * and divider ends) is done in {@link #create(PieSnapshot, Params)}, which
+ * may run on any thread. Applying the result with
+ * {@link CircleLayout#setPrecomputedPie(PrecomputedPie)} is a plain copy.
+ */
+public final class PrecomputedPie {
+
+    /**
+     * Everything besides the slice values that the geometry depends on.
+     * Obtain one from {@link CircleLayout#getPieParams(int, int)}.
+     */
+    public static final class Params {
+
+        final int width;
+        final int height;
+        final int innerRadius;
+        final float angleOffset;
+        final float angleRange;
+        final float padding;
+        final float labelSpace;
+
+        Params(int width, int height, int innerRadius, float angleOffset, float angleRange, float padding,
+               float labelSpace) {
+            this.width = width;
+            this.height = height;
+            this.innerRadius = innerRadius;
+            this.angleOffset = angleOffset;
+            this.angleRange = angleRange;
+            this.padding = padding;
+            this.labelSpace = labelSpace;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        boolean matches(int width, int height, int innerRadius, float angleOffset, float angleRange, float padding,
+                        float labelSpace) {
+            return this.width == width
+                    && this.height == height
+                    && this.innerRadius == innerRadius
+                    && Float.compare(this.angleOffset, angleOffset) == 0
+                    && Float.compare(this.angleRange, angleRange) == 0
+                    && Float.compare(this.padding, padding) == 0
+                    && Float.compare(this.labelSpace, labelSpace) == 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Params)) return false;
+
+            Params other = (Params) o;
+            return matches(other.width, other.height, other.innerRadius, other.angleOffset, other.angleRange, other.padding,
+                    other.labelSpace);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = width;
+            result = 31 * result + height;
+            result = 31 * result + innerRadius;
+            result = 31 * result + Float.floatToIntBits(angleOffset);
+            result = 31 * result + Float.floatToIntBits(angleRange);
+            result = 31 * result + Float.floatToIntBits(padding);
+            result = 31 * result + Float.floatToIntBits(labelSpace);
+            return result;
+        }
+    }
+
+    private final Params mParams;
+    private final int mCount;
+
+    private final PieGeometry mGeometry;
+
+    private final int[] mCenterX;
+    private final int[] mCenterY;
+
+    /** x0, y0, x1, y1 for each divider, ready for Canvas.drawLines */
+    private final float[] mDividers;
+
+    private final float mBoundsLeft;
+    private final float mBoundsTop;
+    private final float mBoundsRight;
+    private final float mBoundsBottom;
+
+    private PrecomputedPie(Params params, PieGeometry geometry) {
+        final int count = geometry.getCount();
+
+        mParams = params;
+        mGeometry = geometry;
+        mCount = count;
+        mCenterX = new int[count];
+        mCenterY = new int[count];
+        mDividers = count > 1 ? new float[(count + 1) * 4] : new float[0];
+
+        final int width = params.width;
+        final int height = params.height;
+        final float minDimen = (width > height ? height : width) - 2f * params.labelSpace;
+
+        mBoundsLeft = width / 2 - minDimen / 2 + params.padding;
+        mBoundsTop = height / 2 - minDimen / 2 + params.padding;
+        mBoundsRight = width / 2 + minDimen / 2 - params.padding;
+        mBoundsBottom = height / 2 + minDimen / 2 - params.padding;
+    }
+
+    public static PrecomputedPie create(PieSnapshot snapshot, Params params) {
+        final int count = snapshot.getCount();
+        final float[] percentages = new float[count];
+
+        for (int i = 0; i < count; i++) {
+            percentages[i] = snapshot.getPercentage(i);
+        }
+
+        return create(percentages, params);
+    }
+
+    /**
+     * @param percentages slice sizes in the 0..100 range, as returned by
+     * {@link ViewModel#getPercentage()}
+     */
+    public static PrecomputedPie create(float[] percentages, Params params) {
+        final int width = params.width;
+        final int height = params.height;
+
+        final float minDimen = (width > height ? height : width) - 2f * params.labelSpace;
+        final float radius = (minDimen - params.innerRadius) / 2f;
+
+        final float halfWidth = width / 2f;
+        final float halfHeight = height / 2f;
+        final float dividerRadius = (halfWidth > halfHeight ? halfHeight : halfWidth) - params.labelSpace;
+
+        final PieGeometry geometry = PieGeometry.fromPercentages(percentages, halfWidth, halfHeight,
+                dividerRadius, params.innerRadius, params.angleOffset, params.angleRange);
+
+        final int count = geometry.getCount();
+        final PrecomputedPie pie = new PrecomputedPie(params, geometry);
+
+        for (int i = 0; i < count; i++) {
+            final float startAngle = geometry.getStartAngle(i);
+            final double centerAngle = Math.toRadians(geometry.getCenterAngle(i));
+
+            if (count > 1) {
+                pie.mCenterX[i] = (int) (radius * Math.cos(centerAngle)) + width / 2;
+                pie.mCenterY[i] = (int) (radius * Math.sin(centerAngle)) + height / 2;
+
+                pie.setDivider(i, startAngle, halfWidth, halfHeight, dividerRadius);
+            } else {
+                pie.mCenterX[i] = width / 2;
+                pie.mCenterY[i] = height / 2;
+            }
+        }
+
+        if (count > 1) {
+            pie.setDivider(count, geometry.getEndAngle(count - 1), halfWidth, halfHeight, dividerRadius);
+        }
+
+        return pie;
+    }
+
+    private void setDivider(int index, float angle, float halfWidth, float halfHeight, float radius) {
+        final double radians = Math.toRadians(angle);
+        final int offset = index * 4;
+
+        mDividers[offset] = halfWidth;
+        mDividers[offset + 1] = halfHeight;
+        mDividers[offset + 2] = radius * (float) Math.cos(radians) + halfWidth;
+        mDividers[offset + 3] = radius * (float) Math.sin(radians) + halfHeight;
+    }
+
+    public Params getParams() {
+        return mParams;
+    }
+
+    public int getCount() {
+        return mCount;
+    }
+
+    public PieGeometry getGeometry() {
+        return mGeometry;
+    }
+
+    public float getStartAngle(int index) {
+        return mGeometry.getStartAngle(index);
+    }
+
+    public float getEndAngle(int index) {
+        return mGeometry.getEndAngle(index);
+    }
+
+    public int getCenterX(int index) {
+        return mCenterX[index];
+    }
+
+    public int getCenterY(int index) {
+        return mCenterY[index];
+    }
+
+    float[] getDividers() {
+        return mDividers;
+    }
+
+    public float getBoundsLeft() {
+        return mBoundsLeft;
+    }
+
+    public float getBoundsTop() {
+        return mBoundsTop;
+    }
+
+    public float getBoundsRight() {
+        return mBoundsRight;
+    }
+
+    public float getBoundsBottom() {
+        return mBoundsBottom;
+    }
+}
@@ -0,0 +1,187 @@
+package com.luantc.test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * Accepts slice value updates from any thread and publishes them to a
+ * {@link CircleLayout} as an immutable {@link PieSnapshot}, at most once per
+ * frame.
+ *
+ * Writers never block: every update is a CAS on an atomic cell. Additions
+ * are spread over a few stripes per slice so that producers on different
+ * threads do not contend on the same cell. The UI thread drains the cells
+ * into a fresh snapshot on the next animation frame, so a burst of updates
+ * results in a single layout pass.
+ *
+ * The layout registers itself only while attached to a window. Updates that
+ * arrive while it is detached are kept and published when it attaches again.
+ */
+public class SliceDataPublisher {
+
+    private static final int STRIPES = stripeCount();
+
+    private final int mSliceCount;
+
+    /** float bits of the last value passed to {@link #set(int, float)} */
+    private final AtomicIntegerArray mBase;
+
+    /** float bits of the pending additions, STRIPES cells per slice */
+    private final AtomicIntegerArray mCells;
+
+    private final AtomicBoolean mFramePending = new AtomicBoolean();
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private volatile CircleLayout mTarget;
+    private volatile PieSnapshot mSnapshot;
+
+    private long mVersion;
+
+    private final Runnable mPublish = new Runnable() {
+        @Override
+        public void run() {
+            publish();
+        }
+    };
+
+    public SliceDataPublisher(int sliceCount) {
+        mSliceCount = sliceCount;
+        mBase = new AtomicIntegerArray(sliceCount);
+        mCells = new AtomicIntegerArray(sliceCount * STRIPES);
+        mSnapshot = new PieSnapshot(new float[sliceCount], 0L);
+    }
+
+    public int getSliceCount() {
+        return mSliceCount;
+    }
+
+    /**
+     * Replaces the value of a slice. May be called from any thread; additions
+     * racing with this call may or may not be included in the new value.
+     */
+    public void set(int slice, float value) {
+        mBase.set(slice, Float.floatToRawIntBits(value));
+
+        final int offset = slice * STRIPES;
+        for (int i = 0; i < STRIPES; i++) {
+            mCells.set(offset + i, 0);
+        }
+
+        scheduleFrame();
+    }
+
+    /**
+     * Replaces the value of every slice, e.g. with the totals of a freshly
+     * aggregated data set. May be called from any thread.
+     */
+    public void setAll(float[] values) {
+        final int count = Math.min(values.length, mSliceCount);
+
+        for (int slice = 0; slice < count; slice++) {
+            mBase.set(slice, Float.floatToRawIntBits(values[slice]));
+
+            final int offset = slice * STRIPES;
+            for (int i = 0; i < STRIPES; i++) {
+                mCells.set(offset + i, 0);
+            }
+        }
+
+        scheduleFrame();
+    }
+
+    /**
+     * Adds a delta to the value of a slice. May be called from any thread.
+     */
+    public void add(int slice, float delta) {
+        final int index = slice * STRIPES + (int) (Thread.currentThread().getId() & (STRIPES - 1));
+
+        int current;
+        int next;
+        do {
+            current = mCells.get(index);
+            next = Float.floatToRawIntBits(Float.intBitsToFloat(current) + delta);
+        } while (!mCells.compareAndSet(index, current, next));
+
+        scheduleFrame();
+    }
+
+    /**
+     * @return the last snapshot handed to the layout. Safe to call from any
+     * thread.
+     */
+    public PieSnapshot getSnapshot() {
+        return mSnapshot;
+    }
+
+    void attach(CircleLayout target) {
+        mTarget = target;
+        mFramePending.set(false);
+        scheduleFrame();
+    }
+
+    void detach(CircleLayout target) {
+        if (mTarget == target) {
+            mTarget = null;
+            mHandler.removeCallbacks(mPublish);
+            target.removeCallbacks(mPublish);
+        }
+    }
+
+    private void scheduleFrame() {
+        final CircleLayout target = mTarget;
+
+        if (target == null || !mFramePending.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (Build.VERSION.SDK_INT >= 16) {
+            target.postOnAnimation(mPublish);
+        } else {
+            mHandler.post(mPublish);
+        }
+    }
+
+    private void publish() {
+        // Clear the flag before draining so that updates arriving while we
+        // build the snapshot schedule the next frame instead of being lost.
+        mFramePending.set(false);
+
+        final CircleLayout target = mTarget;
+        if (target == null) {
+            return;
+        }
+
+        final float[] values = new float[mSliceCount];
+        for (int slice = 0; slice < mSliceCount; slice++) {
+            float value = Float.intBitsToFloat(mBase.get(slice));
+
+            final int offset = slice * STRIPES;
+            for (int i = 0; i < STRIPES; i++) {
+                value += Float.intBitsToFloat(mCells.get(offset + i));
+            }
+
+            values[slice] = value;
+        }
+
+        final PieSnapshot snapshot = new PieSnapshot(values, ++mVersion);
+        mSnapshot = snapshot;
+
+        target.onSnapshotPublished(snapshot);
+    }
+
+    private static int stripeCount() {
+        final int cpus = Runtime.getRuntime().availableProcessors();
+
+        int stripes = 1;
+        while (stripes < cpus && stripes < 16) {
+            stripes <<= 1;
+        }
+
+        return stripes;
+    }
+}
@@ -0,0 +1,230 @@
+package com.luantc.test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import android.util.LruCache;
+
+/**
+ * Process-wide source of the images {@link CircleLayout} fills slices with.
+ *
+ * Each image is decoded on a worker thread, scaled down to cover the
+ * requested size, the bounding box of its wedge, and kept in an LRU whose
+ * budget is in bytes and defaults to a sixteenth of the heap. Concurrent
+ * requests for the same image and size share one decode.
+ *
+ * The built-in decoder reads "drawable://" + R.drawable.a and file paths.
+ * Set a {@link Decoder} backed by an image loading library for other
+ * schemes, e.g. http URLs with a disk cache.
+ */
+public class SliceImageCache {
+
+    /**
+     * Called on the UI thread, not at all if the image could not be loaded.
+     */
+    public interface Callback {
+        void onImageLoaded(String uri, Bitmap bitmap);
+    }
+
+    /**
+     * Loads an image scaled to cover width x height, on a worker thread.
+     */
+    public interface Decoder {
+        /**
+         * @return the image, or null if it cannot be loaded
+         */
+        Bitmap decode(String uri, int width, int height);
+    }
+
+    private static final String DRAWABLE_SCHEME = "drawable://";
+    private static final String FILE_SCHEME = "file://";
+
+    private static SliceImageCache sInstance;
+    private static ExecutorService sExecutor;
+
+    private final LruCache<String, Bitmap> mCache;
+    private final Map<String, List<Callback>> mPending = new HashMap<>();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private final Resources mResources;
+    private volatile Decoder mDecoder;
+
+    public static synchronized SliceImageCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new SliceImageCache(context.getApplicationContext().getResources(),
+                    (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 16));
+        }
+        return sInstance;
+    }
+
+    private SliceImageCache(Resources resources, int maxBytes) {
+        mResources = resources;
+        mCache = new LruCache<String, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getRowBytes() * value.getHeight();
+            }
+        };
+    }
+
+    private static synchronized ExecutorService executor() {
+        if (sExecutor == null) {
+            // Decoding is mostly waiting for IO, two threads keep the disk busy
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 30L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable r) {
+                    final Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            r.run();
+                        }
+                    }, "SliceImage");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.allowCoreThreadTimeOut(true);
+
+            sExecutor = executor;
+        }
+        return sExecutor;
+    }
+
+    /**
+     * @param decoder used for every image loaded from now on, or null for
+     *                the built-in one
+     */
+    public void setDecoder(Decoder decoder) {
+        mDecoder = decoder;
+    }
+
+    private static String key(String uri, int width, int height) {
+        return uri + "@" + width + "x" + height;
+    }
+
+    /**
+     * @return the image if it was loaded at this size before, or null
+     */
+    public Bitmap get(String uri, int width, int height) {
+        return mCache.get(key(uri, width, height));
+    }
+
+    /**
+     * Delivers the image scaled to cover width x height, at once if it is
+     * cached. Must be called on the UI thread.
+     */
+    public void load(final String uri, final int width, final int height, Callback callback) {
+        final String key = key(uri, width, height);
+
+        final Bitmap cached = mCache.get(key);
+        if (cached != null) {
+            callback.onImageLoaded(uri, cached);
+            return;
+        }
+
+        List<Callback> callbacks = mPending.get(key);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return;
+        }
+
+        callbacks = new ArrayList<>();
+        callbacks.add(callback);
+        mPending.put(key, callbacks);
+
+        executor().execute(new Runnable() {
+            @Override
+            public void run() {
+                Bitmap bitmap = null;
+                try {
+                    final Decoder decoder = mDecoder;
+                    bitmap = decoder != null ? decoder.decode(uri, width, height) : decode(uri, width, height);
+                } catch (RuntimeException e) {
+                    Log.w("SliceImageCache", "Cannot load " + uri, e);
+                } catch (OutOfMemoryError e) {
+                    Log.w("SliceImageCache", "Out of memory loading " + uri, e);
+                }
+
+                final Bitmap loaded = bitmap;
+
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        final List<Callback> waiting = mPending.remove(key);
+
+                        if (loaded == null || waiting == null) {
+                            return;
+                        }
+
+                        mCache.put(key, loaded);
+                        for (Callback callback : waiting) {
+                            callback.onImageLoaded(uri, loaded);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private Bitmap decode(String uri, int width, int height) {
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+
+        if (uri.startsWith(DRAWABLE_SCHEME)) {
+            final int id = Integer.parseInt(uri.substring(DRAWABLE_SCHEME.length()));
+
+            BitmapFactory.decodeResource(mResources, id, options);
+            options.inSampleSize = sampleSize(options, width, height);
+            options.inJustDecodeBounds = false;
+            return BitmapFactory.decodeResource(mResources, id, options);
+        }
+
+        final String path = uri.startsWith(FILE_SCHEME) ? uri.substring(FILE_SCHEME.length()) : uri;
+
+        BitmapFactory.decodeFile(path, options);
+        options.inSampleSize = sampleSize(options, width, height);
+        options.inJustDecodeBounds = false;
+        return BitmapFactory.decodeFile(path, options);
+    }
+
+    /**
+     * @return the largest power of two that keeps the decoded image at least
+     * width x height; the shader scales the rest of the way
+     */
+    private static int sampleSize(BitmapFactory.Options bounds, int width, int height) {
+        int sampleSize = 1;
+        while (bounds.outWidth / (sampleSize * 2) >= width && bounds.outHeight / (sampleSize * 2) >= height) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    public void evictAll() {
+        mCache.evictAll();
+    }
+
+    public int getSizeBytes() {
+        return mCache.size();
+    }
+
+    public int getMaxBytes() {
+        return mCache.maxSize();
+    }
+}
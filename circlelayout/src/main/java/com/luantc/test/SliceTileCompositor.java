@@ -0,0 +1,272 @@
+package com.luantc.test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.view.View;
+
+import com.luantc.test.core.PieGeometry;
+
+/**
+ * Keeps one pre-masked tile per slice for {@link CircleLayout}, sized to the
+ * bounding box of the slice's wedge.
+ *
+ * Once a child has stopped invalidating for a moment, the recording of its
+ * content is replayed into a tile-sized buffer on the UI thread, and the
+ * wedge mask and highlight are applied on a worker pool bounded to the number
+ * of cores. From then on the slice costs a single drawBitmap per frame. Until
+ * a tile is ready, {@link #draw} returns false and the caller renders the
+ * slice synchronously from the same recording, so the child itself is drawn
+ * once either way. Tile and capture buffers are reused through a
+ * {@link BitmapPool}.
+ */
+class SliceTileCompositor {
+
+    /** extra pixels around the wedge for anti-aliasing and the highlight stroke */
+    private static final int TILE_MARGIN = 4;
+
+    /** how long a child must go without invalidating before it gets a tile */
+    private static final long STABLE_MILLIS = 100L;
+
+    /** replaced tiles and finished captures kept for the next tiles of the same size */
+    private static final int MAX_POOLED_BITMAPS = 8;
+
+    private static ExecutorService sExecutor;
+
+    private final CircleLayout mLayout;
+    private Tile[] mTiles = new Tile[0];
+
+    private final BitmapPool mPool = new BitmapPool(MAX_POOLED_BITMAPS);
+    /** finished tiles are handed over here, a detached layout would drop them */
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private final RectF mWedgeBounds = new RectF();
+    private final Rect mTileRect = new Rect();
+
+    private static class Tile {
+        Bitmap bitmap;
+        int left;
+        int top;
+        int readyHash;
+
+        int pendingHash;
+        boolean pending;
+
+        /** LayoutParams.contentVersion the tile was captured from */
+        int contentVersion;
+
+        /** bumped whenever in-flight work must be dropped */
+        int generation;
+        long invalidatedAt;
+    }
+
+    SliceTileCompositor(CircleLayout layout) {
+        mLayout = layout;
+    }
+
+    private static synchronized ExecutorService executor() {
+        if (sExecutor == null) {
+            final int cores = Runtime.getRuntime().availableProcessors();
+
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(cores, cores, 30L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable r) {
+                    final Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            r.run();
+                        }
+                    }, "PieTile");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.allowCoreThreadTimeOut(true);
+
+            sExecutor = executor;
+        }
+        return sExecutor;
+    }
+
+    private Tile tile(int index) {
+        if (index >= mTiles.length) {
+            Tile[] tiles = new Tile[index + 1];
+            System.arraycopy(mTiles, 0, tiles, 0, mTiles.length);
+            for (int i = mTiles.length; i < tiles.length; i++) {
+                tiles[i] = new Tile();
+            }
+            mTiles = tiles;
+        }
+        return mTiles[index];
+    }
+
+    private void invalidateTile(Tile tile) {
+        tile.readyHash = 0;
+        tile.pending = false;
+        tile.generation++;
+        tile.invalidatedAt = SystemClock.uptimeMillis();
+    }
+
+    /**
+     * Drops every tile and the pooled bitmaps, e.g. when the layout is
+     * detached or leaves tile mode. Work in flight is discarded.
+     */
+    void release() {
+        for (Tile tile : mTiles) {
+            tile.bitmap = null;
+            tile.readyHash = 0;
+            tile.pending = false;
+            tile.generation++;
+        }
+        mTiles = new Tile[0];
+        mPool.clear();
+    }
+
+    /**
+     * @param lp the child's layout params; its content must have been
+     *           recorded for this frame
+     * @return true if the slice was drawn from its tile, false if the caller
+     * has to render it synchronously this frame
+     */
+    @TargetApi(21)
+    boolean draw(Canvas canvas, int index, View child, CircleLayout.LayoutParams lp,
+                 RectF bounds, boolean highlight, PieRenderer style) {
+        final Tile tile = tile(index);
+        final float startAngle = lp.startAngle;
+        final float endAngle = lp.endAngle;
+
+        // The child was drawn into a new recording since the tile was captured
+        if (lp.contentVersion != tile.contentVersion) {
+            invalidateTile(tile);
+            tile.contentVersion = lp.contentVersion;
+        }
+
+        final int hash = geometryHash(startAngle, endAngle, bounds, highlight);
+
+        if (tile.bitmap != null && tile.readyHash == hash) {
+            canvas.drawBitmap(tile.bitmap, tile.left, tile.top, null);
+            return true;
+        }
+
+        if (tile.pending && tile.pendingHash == hash) {
+            return false;
+        }
+
+        // Only pay for a tile once the content holds still, otherwise come back later
+        final long stableFor = SystemClock.uptimeMillis() - tile.invalidatedAt;
+        if (stableFor >= STABLE_MILLIS && lp.content != null) {
+            schedule(tile, child, lp, bounds, highlight, style, hash);
+        } else {
+            mLayout.postInvalidateDelayed(STABLE_MILLIS - stableFor);
+        }
+
+        return false;
+    }
+
+    private void schedule(final Tile tile, View child, CircleLayout.LayoutParams lp,
+                          RectF bounds, final boolean highlight, PieRenderer style, final int hash) {
+        final float startAngle = lp.startAngle;
+        final float endAngle = lp.endAngle;
+
+        wedgeBounds(bounds, startAngle, endAngle - startAngle, mWedgeBounds);
+        mWedgeBounds.roundOut(mTileRect);
+
+        final int left = Math.max(0, mTileRect.left - TILE_MARGIN);
+        final int top = Math.max(0, mTileRect.top - TILE_MARGIN);
+        final int right = Math.min(mLayout.getWidth(), mTileRect.right + TILE_MARGIN);
+        final int bottom = Math.min(mLayout.getHeight(), mTileRect.bottom + TILE_MARGIN);
+
+        if (right <= left || bottom <= top) {
+            return;
+        }
+
+        // The recording is replaced on the UI thread, so replay it here
+        final Bitmap src = mPool.obtain(right - left, bottom - top);
+        final Bitmap dst = mPool.obtain(right - left, bottom - top);
+
+        final Canvas srcCanvas = new Canvas(src);
+        srcCanvas.translate(-left, -top);
+        srcCanvas.clipRect(child.getLeft(), child.getTop(), child.getRight(), child.getBottom());
+        srcCanvas.translate(child.getLeft(), child.getTop());
+        srcCanvas.drawPicture(lp.content);
+
+        final RectF localBounds = new RectF(bounds);
+        localBounds.offset(-left, -top);
+
+        final PieRenderer renderer = new PieRenderer(style);
+        final int generation = ++tile.generation;
+
+        tile.pending = true;
+        tile.pendingHash = hash;
+
+        executor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final Canvas dstCanvas = new Canvas(dst);
+
+                renderer.drawWedge(dstCanvas, src, localBounds, startAngle, endAngle - startAngle);
+                if (highlight) {
+                    renderer.drawHighlight(dstCanvas, localBounds, startAngle, endAngle - startAngle);
+                }
+
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (tile.generation != generation) {
+                            // Released or replaced meanwhile, nothing will reuse these
+                            return;
+                        }
+
+                        mPool.release(src);
+                        // Software layers draw immediately, the old tile is no longer referenced
+                        mPool.release(tile.bitmap);
+
+                        tile.bitmap = dst;
+                        tile.left = left;
+                        tile.top = top;
+                        tile.readyHash = hash;
+                        tile.pending = false;
+
+                        mLayout.invalidate();
+                    }
+                });
+            }
+        });
+    }
+
+    private static int geometryHash(float startAngle, float endAngle, RectF bounds, boolean highlight) {
+        int result = Float.floatToIntBits(startAngle);
+        result = 31 * result + Float.floatToIntBits(endAngle);
+        result = 31 * result + Float.floatToIntBits(bounds.left);
+        result = 31 * result + Float.floatToIntBits(bounds.top);
+        result = 31 * result + Float.floatToIntBits(bounds.right);
+        result = 31 * result + Float.floatToIntBits(bounds.bottom);
+        result = 31 * result + (highlight ? 1 : 2);
+        // 0 is reserved for "no tile"
+        return result == 0 ? 1 : result;
+    }
+
+    /**
+     * Bounding box of the wedge drawn by Canvas.drawArc(bounds, start, sweep,
+     * true, paint) for square bounds, see {@link PieGeometry#wedgeBounds}.
+     */
+    static void wedgeBounds(RectF bounds, float startAngle, float sweepAngle, RectF out) {
+        final float[] box = new float[4];
+        PieGeometry.wedgeBounds(bounds.centerX(), bounds.centerY(), bounds.width() / 2f, startAngle, sweepAngle, box);
+        out.set(box[0], box[1], box[2], box[3]);
+    }
+}
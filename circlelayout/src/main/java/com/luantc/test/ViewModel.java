@@ -7,6 +7,7 @@ public class ViewModel {
 
     float percentage;
     boolean needHighlight;
+    String imageUri;
 
     public ViewModel(float percentage, boolean needHighlight) {
         this.percentage = percentage;
@@ -28,4 +29,19 @@ public class ViewModel {
     public void setNeedHighlight(boolean needHighlight) {
         this.needHighlight = needHighlight;
     }
+
+    public String getImageUri() {
+        return imageUri;
+    }
+
+    /**
+     * @param imageUri image the slice is filled with instead of its view's
+     *                 content, or null to draw the view. It is handed to the
+     *                 {@link SliceImageCache.Decoder} set with
+     *                 {@link SliceImageCache#setDecoder}, so any form that
+     *                 decoder understands is accepted
+     */
+    public void setImageUri(String imageUri) {
+        this.imageUri = imageUri;
+    }
 }
@@ -1,6 +1,9 @@
 
 package com.luantc.test.animation;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import android.animation.ObjectAnimator;
 import android.animation.ValueAnimator.AnimatorUpdateListener;
 import android.annotation.SuppressLint;
@@ -16,6 +19,14 @@ public class ChartAnimator {
     /** object that is updated upon animation update */
     private AnimatorUpdateListener mListener;
 
+    /** animators started by this object that may still be running */
+    private final List<ObjectAnimator> mAnimators = new ArrayList<>();
+
+    /** play times to resume from below API 19, where animators cannot pause */
+    private long[] mPausedPlayTimes;
+
+    private boolean mPaused;
+
     public ChartAnimator() {
 
     }
@@ -73,8 +84,8 @@ public class ChartAnimator {
             animatorY.addUpdateListener(mListener);
         }
 
-        animatorX.start();
-        animatorY.start();
+        start(animatorX);
+        start(animatorY);
     }
 
     /**
@@ -94,7 +105,7 @@ public class ChartAnimator {
         animatorX.setInterpolator(easing);
         animatorX.setDuration(durationMillis);
         animatorX.addUpdateListener(mListener);
-        animatorX.start();
+        start(animatorX);
     }
 
     /**
@@ -114,7 +125,7 @@ public class ChartAnimator {
         animatorY.setInterpolator(easing);
         animatorY.setDuration(durationMillis);
         animatorY.addUpdateListener(mListener);
-        animatorY.start();
+        start(animatorY);
     }
 
     /**
@@ -155,8 +166,8 @@ public class ChartAnimator {
             animatorY.addUpdateListener(mListener);
         }
 
-        animatorX.start();
-        animatorY.start();
+        start(animatorX);
+        start(animatorY);
     }
 
     /**
@@ -176,7 +187,7 @@ public class ChartAnimator {
         animatorX.setInterpolator(Easing.getEasingFunctionFromOption(easing));
         animatorX.setDuration(durationMillis);
         animatorX.addUpdateListener(mListener);
-        animatorX.start();
+        start(animatorX);
     }
 
     /**
@@ -196,7 +207,7 @@ public class ChartAnimator {
         animatorY.setInterpolator(Easing.getEasingFunctionFromOption(easing));
         animatorY.setDuration(durationMillis);
         animatorY.addUpdateListener(mListener);
-        animatorY.start();
+        start(animatorY);
     }
 
     /**
@@ -232,8 +243,8 @@ public class ChartAnimator {
             animatorY.addUpdateListener(mListener);
         }
 
-        animatorX.start();
-        animatorY.start();
+        start(animatorX);
+        start(animatorY);
     }
 
     /**
@@ -251,7 +262,7 @@ public class ChartAnimator {
         ObjectAnimator animatorX = ObjectAnimator.ofFloat(this, "phaseX", 0f, 1f);
         animatorX.setDuration(durationMillis);
         animatorX.addUpdateListener(mListener);
-        animatorX.start();
+        start(animatorX);
     }
 
     /**
@@ -269,7 +280,7 @@ public class ChartAnimator {
         ObjectAnimator animatorY = ObjectAnimator.ofFloat(this, "phaseY", 0f, 1f);
         animatorY.setDuration(durationMillis);
         animatorY.addUpdateListener(mListener);
-        animatorY.start();
+        start(animatorY);
     }
 
     /**
@@ -307,4 +318,113 @@ public class ChartAnimator {
     public void setPhaseX(float phase) {
         mPhaseX = phase;
     }
+
+    /**
+     * Starts an animator and keeps it for {@link #pause()}. Starting a new
+     * animation ends a pause.
+     */
+    @SuppressLint("NewApi")
+    private void start(ObjectAnimator animator) {
+        if (mPaused) {
+            resume();
+        }
+
+        // Forget the ones that already ended
+        for (int i = mAnimators.size() - 1; i >= 0; i--) {
+            if (!mAnimators.get(i).isStarted()) {
+                mAnimators.remove(i);
+            }
+        }
+
+        mAnimators.add(animator);
+        animator.start();
+    }
+
+    /**
+     * Stops the running animations from producing frames, e.g. while the
+     * chart is not visible. The phases keep their current values and
+     * {@link #resume()} continues from there.
+     */
+    @SuppressLint("NewApi")
+    public void pause() {
+        if (mPaused || android.os.Build.VERSION.SDK_INT < 11) {
+            return;
+        }
+        mPaused = true;
+
+        final int count = mAnimators.size();
+
+        if (android.os.Build.VERSION.SDK_INT >= 19) {
+            for (int i = 0; i < count; i++) {
+                mAnimators.get(i).pause();
+            }
+            return;
+        }
+
+        mPausedPlayTimes = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            final ObjectAnimator animator = mAnimators.get(i);
+
+            if (animator.isStarted()) {
+                mPausedPlayTimes[i] = animator.getCurrentPlayTime();
+                animator.cancel();
+            } else {
+                mPausedPlayTimes[i] = -1L;
+            }
+        }
+    }
+
+    @SuppressLint("NewApi")
+    public void resume() {
+        if (!mPaused) {
+            return;
+        }
+        mPaused = false;
+
+        final int count = mAnimators.size();
+
+        if (android.os.Build.VERSION.SDK_INT >= 19) {
+            for (int i = 0; i < count; i++) {
+                mAnimators.get(i).resume();
+            }
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (mPausedPlayTimes[i] >= 0L) {
+                final ObjectAnimator animator = mAnimators.get(i);
+                animator.start();
+                animator.setCurrentPlayTime(mPausedPlayTimes[i]);
+            }
+        }
+        mPausedPlayTimes = null;
+    }
+
+    public boolean isPaused() {
+        return mPaused;
+    }
+
+    /**
+     * @return true while an animation has not finished yet, paused or not
+     */
+    @SuppressLint("NewApi")
+    public boolean isRunning() {
+        if (mPausedPlayTimes != null) {
+            // Paused below KitKat: the animators were cancelled
+            for (long playTime : mPausedPlayTimes) {
+                if (playTime >= 0L) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        for (int i = 0, count = mAnimators.size(); i < count; i++) {
+            if (mAnimators.get(i).isStarted()) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,80 @@
+
+package com.luantc.test.animation;
+
+import com.luantc.test.core.PieEasing;
+
+/**
+ * Easing options.
+ * 
+ * @author Daniel Cohen Gindi
+ */
+public class Easing {
+
+    /**
+     * Use EasingOption instead of EasingFunction to avoid crashes below Android
+     * 3.0
+     */
+    public enum EasingOption {
+        Linear,
+        EaseInQuad,
+        EaseOutQuad,
+        EaseInOutQuad,
+        EaseInCubic,
+        EaseOutCubic,
+        EaseInOutCubic,
+        EaseInQuart,
+        EaseOutQuart,
+        EaseInOutQuart,
+        EaseInSine,
+        EaseOutSine,
+        EaseInOutSine,
+        EaseInExpo,
+        EaseOutExpo,
+        EaseInOutExpo,
+        EaseInCirc,
+        EaseOutCirc,
+        EaseInOutCirc,
+        EaseInElastic,
+        EaseOutElastic,
+        EaseInOutElastic,
+        EaseInBack,
+        EaseOutBack,
+        EaseInOutBack,
+        EaseInBounce,
+        EaseOutBounce,
+        EaseInOutBounce,
+    }
+
+    public static EasingFunction getEasingFunctionFromOption(EasingOption easing) {
+        return EasingFunctions.FUNCTIONS[easing.ordinal()];
+    }
+
+    private static class EasingFunctions {
+
+        /**
+         * The curves themselves live in {@link PieEasing} so they can be used
+         * without Android; these adapt them to TimeInterpolator.
+         */
+        static final EasingFunction[] FUNCTIONS = new EasingFunction[EasingOption.values().length];
+
+        static {
+            for (EasingOption option : EasingOption.values()) {
+                FUNCTIONS[option.ordinal()] = new CoreEasingFunction(PieEasing.valueOf(option.name()));
+            }
+        }
+    }
+
+    private static class CoreEasingFunction implements EasingFunction {
+
+        private final PieEasing mEasing;
+
+        CoreEasingFunction(PieEasing easing) {
+            mEasing = easing;
+        }
+
+        @Override
+        public float getInterpolation(float input) {
+            return mEasing.interpolate(input);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.luantc.test;
+
+import android.app.Activity;
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import com.luantc.test.circlelayout.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * The pie layers are dropped on detach and under memory pressure, and
+ * allocated again by the next draw.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class CircleLayoutBuffersTest {
+
+    private static final int SIZE = 300;
+
+    private Activity mActivity;
+    private CircleLayout mLayout;
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.setupActivity(Activity.class);
+
+        mLayout = new CircleLayout(mActivity);
+        mLayout.setLayoutMode(CircleLayout.LAYOUT_PIE);
+        for (int i = 0; i < 3; i++) {
+            final TextView child = new TextView(mActivity);
+            child.setBackgroundColor(Color.RED);
+            child.setTag(new ViewModel(100f / 3, false));
+            mLayout.addView(child, new CircleLayout.LayoutParams(SIZE, SIZE));
+        }
+
+        mActivity.setContentView(mLayout);
+    }
+
+    @Test
+    public void detach_releasesBuffers() {
+        draw();
+        assertAllocated();
+
+        final ViewGroup parent = (ViewGroup) mLayout.getParent();
+        parent.removeView(mLayout);
+        assertReleased();
+
+        parent.addView(mLayout);
+        draw();
+        assertAllocated();
+    }
+
+    @Test
+    public void trimWhileHidden_releasesBuffers() {
+        for (int level : new int[]{ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN,
+                ComponentCallbacks2.TRIM_MEMORY_BACKGROUND, ComponentCallbacks2.TRIM_MEMORY_COMPLETE}) {
+            draw();
+            assertAllocated();
+
+            RuntimeEnvironment.application.onTrimMemory(level);
+            assertReleased();
+        }
+
+        draw();
+        assertAllocated();
+    }
+
+    @Test
+    public void trimRunningLow_keepsBuffersOfShownChart() {
+        draw();
+
+        RuntimeEnvironment.application.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+        assertAllocated();
+
+        mLayout.setVisibility(View.INVISIBLE);
+        RuntimeEnvironment.application.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+        assertReleased();
+
+        mLayout.setVisibility(View.VISIBLE);
+        draw();
+        assertAllocated();
+    }
+
+    @Test
+    public void detachTrimReattachCycles() {
+        final ViewGroup parent = (ViewGroup) mLayout.getParent();
+
+        for (int i = 0; i < 3; i++) {
+            draw();
+            assertAllocated();
+
+            parent.removeView(mLayout);
+            assertReleased();
+
+            parent.addView(mLayout);
+            draw();
+            assertAllocated();
+
+            RuntimeEnvironment.application.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+            assertReleased();
+        }
+    }
+
+    private void draw() {
+        final int spec = View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY);
+        mLayout.measure(spec, spec);
+        mLayout.layout(0, 0, SIZE, SIZE);
+        mLayout.draw(new Canvas(Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888)));
+    }
+
+    private void assertAllocated() {
+        assertNotNull(mLayout.mSrc);
+        assertNotNull(mLayout.mDst);
+        assertNotNull(mLayout.mDrawingCache);
+    }
+
+    private void assertReleased() {
+        assertNull(mLayout.mSrc);
+        assertNull(mLayout.mDst);
+        assertNull(mLayout.mDrawingCache);
+    }
+}
@@ -0,0 +1,121 @@
+package com.luantc.test;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.RectF;
+import android.view.View;
+import android.widget.TextView;
+
+import com.luantc.test.circlelayout.BuildConfig;
+import com.luantc.test.circlelayout.R;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A gauge's layers only cover its arc, so their origin is off the view's.
+ * The slice content must still be composited where the wedge mask is.
+ * Robolectric does not rasterize arcs or apply xfermodes, so the test
+ * records where each source layer is blitted against its mask instead of
+ * reading pixels back.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class CircleLayoutGaugeTest {
+
+    private static final int SIZE = 300;
+    private static final int SLICES = 3;
+
+    private CircleLayout mLayout;
+    private RecordingRenderer mRenderer;
+
+    @Before
+    public void setUp() {
+        final Activity activity = Robolectric.setupActivity(Activity.class);
+
+        mLayout = new CircleLayout(activity, Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.angleRange, "180")
+                .build());
+        mLayout.setLayoutMode(CircleLayout.LAYOUT_PIE);
+        mLayout.setGauge(true);
+        // The upper half: the arc box is centered, well below the view's top
+        mLayout.setAngleOffset(180f);
+
+        for (int i = 0; i < SLICES; i++) {
+            final TextView child = new TextView(activity);
+            child.setBackgroundColor(Color.RED);
+            child.setTag(new ViewModel(100f / SLICES, false));
+            mLayout.addView(child, new CircleLayout.LayoutParams(SIZE, SIZE));
+        }
+
+        mRenderer = new RecordingRenderer(mLayout.mRenderer);
+        mLayout.mRenderer = mRenderer;
+
+        activity.setContentView(mLayout);
+    }
+
+    @Test
+    public void exactlySizedGauge_compositesContentInsideWedges() {
+        final int spec = View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY);
+        mLayout.measure(spec, spec);
+        mLayout.layout(0, 0, SIZE, SIZE);
+        mLayout.draw(new Canvas(Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888)));
+
+        assertNotNull(mLayout.mSrc);
+        assertTrue("layers cover the arc only", mLayout.mSrc.getHeight() < SIZE);
+        assertEquals(SLICES, mRenderer.wedges.size());
+
+        final RectF wedge = new RectF();
+        for (Wedge w : mRenderer.wedges) {
+            assertTrue("buffer origin", w.srcTop > 0f);
+
+            SliceTileCompositor.wedgeBounds(w.bounds, w.startAngle, w.sweepAngle, wedge);
+            final RectF content = new RectF(w.srcLeft, w.srcTop,
+                    w.srcLeft + mLayout.mSrc.getWidth(), w.srcTop + mLayout.mSrc.getHeight());
+
+            assertTrue("content " + content + " covers wedge " + wedge, content.contains(wedge));
+        }
+    }
+
+    private static class Wedge {
+        float srcLeft;
+        float srcTop;
+        RectF bounds;
+        float startAngle;
+        float sweepAngle;
+    }
+
+    private static class RecordingRenderer extends PieRenderer {
+
+        final List<Wedge> wedges = new ArrayList<>();
+
+        RecordingRenderer(PieRenderer other) {
+            super(other);
+        }
+
+        @Override
+        public void drawWedge(Canvas dst, Bitmap src, float srcLeft, float srcTop, RectF bounds,
+                              float startAngle, float sweepAngle) {
+            final Wedge wedge = new Wedge();
+            wedge.srcLeft = srcLeft;
+            wedge.srcTop = srcTop;
+            wedge.bounds = new RectF(bounds);
+            wedge.startAngle = startAngle;
+            wedge.sweepAngle = sweepAngle;
+            wedges.add(wedge);
+
+            super.drawWedge(dst, src, srcLeft, srcTop, bounds, startAngle, sweepAngle);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.luantc.test;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.view.View;
+import android.widget.TextView;
+
+import com.luantc.test.circlelayout.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * LAYOUT_NORMAL only lays out and draws its children: it allocates none of
+ * the pie layers, Paints or xfermodes and keeps the view hardware rendered.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class CircleLayoutNormalModeTest {
+
+    private static final int SIZE = 300;
+
+    private CircleLayout mLayout;
+
+    @Before
+    public void setUp() {
+        final Activity activity = Robolectric.setupActivity(Activity.class);
+
+        mLayout = new CircleLayout(activity);
+        for (int i = 0; i < 3; i++) {
+            final TextView child = new TextView(activity);
+            child.setText("Child " + i);
+            child.setBackgroundColor(Color.RED);
+            child.setTag(new ViewModel(100f / 3, false));
+            mLayout.addView(child);
+        }
+
+        activity.setContentView(mLayout);
+    }
+
+    @Test
+    public void normalMode_allocatesNothing() {
+        assertEquals(CircleLayout.LAYOUT_NORMAL, mLayout.getLayoutMode());
+
+        draw();
+        draw();
+
+        assertNormal();
+    }
+
+    @Test
+    public void backToNormal_releasesLayers() {
+        mLayout.setLayoutMode(CircleLayout.LAYOUT_PIE);
+        draw();
+        assertNotNull(mLayout.mDrawingCache);
+        assertEquals(View.LAYER_TYPE_SOFTWARE, mLayout.getLayerType());
+
+        mLayout.setLayoutMode(CircleLayout.LAYOUT_NORMAL);
+        draw();
+
+        assertNull(mLayout.mSrc);
+        assertNull(mLayout.mDst);
+        assertNull(mLayout.mDrawingCache);
+        assertNotEquals(View.LAYER_TYPE_SOFTWARE, mLayout.getLayerType());
+    }
+
+    private void draw() {
+        final int spec = View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY);
+        mLayout.measure(spec, spec);
+        mLayout.layout(0, 0, SIZE, SIZE);
+        mLayout.draw(new Canvas(Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888)));
+    }
+
+    private void assertNormal() {
+        assertNull(mLayout.mSrc);
+        assertNull(mLayout.mDst);
+        assertNull(mLayout.mDrawingCache);
+        assertFalse("paints", mLayout.hasPaints());
+        assertFalse("xfermodes", mLayout.mRenderer.hasXfermodes());
+        assertNotEquals(View.LAYER_TYPE_SOFTWARE, mLayout.getLayerType());
+    }
+}
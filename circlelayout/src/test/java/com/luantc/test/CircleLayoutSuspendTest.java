@@ -0,0 +1,191 @@
+package com.luantc.test;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.view.View;
+import android.widget.TextView;
+
+import com.luantc.test.circlelayout.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.*;
+
+/**
+ * A chart that cannot be seen produces no frames: animations and data
+ * updates are held back until it shows again.
+ *
+ * Frames are simulated the way the framework runs them: posted work and
+ * animators for one frame interval, a traversal with its pre-draw pass,
+ * then a draw only if the layout was invalidated.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class CircleLayoutSuspendTest {
+
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 800;
+
+    private Activity mActivity;
+    private CountingLayout mLayout;
+    private Canvas mCanvas;
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.setupActivity(Activity.class);
+
+        mLayout = new CountingLayout(mActivity);
+        mLayout.setLayoutMode(CircleLayout.LAYOUT_PIE);
+        for (int i = 0; i < 3; i++) {
+            final TextView child = new TextView(mActivity);
+            child.setBackgroundColor(Color.BLUE);
+            child.setTag(new ViewModel(100f / 3, false));
+            mLayout.addView(child, new CircleLayout.LayoutParams(WIDTH, WIDTH));
+        }
+        mActivity.setContentView(mLayout);
+
+        mCanvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void reveal_drawsNothingWhileInvisible() {
+        mLayout.setAnimationOnly(true);
+        frames(3);
+        assertTrue("reveal runs while shown", mLayout.draws > 0);
+
+        mLayout.setVisibility(View.INVISIBLE);
+        settle();
+
+        frames(30);
+        assertEquals(0, mLayout.draws);
+        assertEquals(0, mLayout.invalidates);
+
+        mLayout.setVisibility(View.VISIBLE);
+        frames(3);
+        assertTrue("reveal continues once shown", mLayout.draws > 0);
+    }
+
+    @Test
+    public void selection_drawsNothingWhileTransparent() {
+        frames(2);
+
+        // As a property animation would, without any chance to override a setter
+        mLayout.setAlpha(0f);
+        mLayout.select(1);
+        settle();
+
+        frames(30);
+        assertEquals(0, mLayout.draws);
+        assertEquals(0, mLayout.invalidates);
+
+        mLayout.setAlpha(1f);
+        frames(2);
+        assertTrue("selection continues once opaque", mLayout.draws > 0);
+    }
+
+    @Test
+    public void publisher_doesNotLayOutWhileInvisible() {
+        final SliceDataPublisher publisher = new SliceDataPublisher(3);
+        mLayout.setDataPublisher(publisher);
+        frames(2);
+
+        mLayout.setVisibility(View.INVISIBLE);
+        publisher.set(0, 5f);
+        settle();
+
+        for (int i = 0; i < 30; i++) {
+            publisher.add(0, 1f);
+            frames(1);
+        }
+        assertEquals(0, mLayout.layoutRequests);
+        assertEquals(0, mLayout.draws);
+
+        mLayout.setVisibility(View.VISIBLE);
+        frames(2);
+        assertTrue("latest values are laid out once shown", mLayout.layoutRequests > 0);
+        assertEquals(35f, publisher.getSnapshot().getValue(0), 0f);
+    }
+
+    @Test
+    public void finishedAnimation_hiddenWindowDoesNotSuspend() {
+        // Leaves an animator behind with nothing in flight
+        mLayout.select(1);
+        frames(40);
+        settle();
+
+        mLayout.onWindowVisibilityChanged(View.GONE);
+        mLayout.onWindowVisibilityChanged(View.VISIBLE);
+        frames(1);
+
+        // Nothing was running, so nothing had to be resumed and redrawn
+        assertEquals(0, mLayout.invalidates);
+    }
+
+    /**
+     * Runs frames until the chart noticed it is hidden, then clears the counts.
+     */
+    private void settle() {
+        frames(3);
+        mLayout.draws = 0;
+        mLayout.invalidates = 0;
+        mLayout.layoutRequests = 0;
+    }
+
+    private void frames(int count) {
+        final View decor = mActivity.getWindow().getDecorView();
+
+        for (int i = 0; i < count; i++) {
+            ShadowLooper.idleMainLooper(16);
+
+            decor.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            decor.layout(0, 0, WIDTH, HEIGHT);
+            mLayout.getViewTreeObserver().dispatchOnPreDraw();
+
+            if (mLayout.dirty) {
+                mLayout.dirty = false;
+                mLayout.draw(mCanvas);
+            }
+        }
+    }
+
+    private static class CountingLayout extends CircleLayout {
+
+        boolean dirty;
+        int invalidates;
+        int draws;
+        int layoutRequests;
+
+        CountingLayout(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void invalidate() {
+            dirty = true;
+            invalidates++;
+            super.invalidate();
+        }
+
+        @Override
+        public void requestLayout() {
+            layoutRequests++;
+            super.requestLayout();
+        }
+
+        @Override
+        protected void dispatchDraw(Canvas canvas) {
+            draws++;
+            super.dispatchDraw(canvas);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.luantc.test.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Sums a file of fixed-size (category, value) records into per-category
+ * totals in one streaming pass over a memory map, without creating an object
+ * per row. Large files can be split into record ranges that are summed in
+ * parallel, each into its own array, and merged at the end.
+ *
+ * Only the totals are meant to reach the chart, e.g. through
+ * SliceDataPublisher.setAll.
+ */
+public class CategoryAggregator {
+
+    /**
+     * Records of a 32-bit category index followed by a 32-bit float value,
+     * little-endian.
+     */
+    public static final CategoryAggregator DEFAULT = new CategoryAggregator(8, 0, 4, ByteOrder.LITTLE_ENDIAN);
+
+    /** upper bound of one mapping, kept well below the 2 GB limit of a buffer */
+    private static final long MAX_MAP_BYTES = 256L * 1024 * 1024;
+
+    private final int mRecordSize;
+    private final int mCategoryOffset;
+    private final int mValueOffset;
+    private final ByteOrder mOrder;
+
+    /**
+     * @param recordSize bytes per record
+     * @param categoryOffset offset of the 32-bit category index in a record
+     * @param valueOffset offset of the 32-bit float value in a record
+     */
+    public CategoryAggregator(int recordSize, int categoryOffset, int valueOffset, ByteOrder order) {
+        if (categoryOffset < 0 || categoryOffset + 4 > recordSize
+                || valueOffset < 0 || valueOffset + 4 > recordSize) {
+            throw new IllegalArgumentException("Fields must lie within the " + recordSize + " byte record");
+        }
+
+        mRecordSize = recordSize;
+        mCategoryOffset = categoryOffset;
+        mValueOffset = valueOffset;
+        mOrder = order;
+    }
+
+    /**
+     * Sums the whole file on the calling thread. Records whose category is
+     * outside 0..categoryCount-1 are skipped, as is a trailing partial record.
+     */
+    public float[] aggregate(File file, int categoryCount) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            final long records = channel.size() / mRecordSize;
+
+            final double[] sums = new double[categoryCount];
+            sumRange(channel, 0, records, sums);
+            return toFloats(sums);
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Splits the file into parts record ranges summed on the executor, for
+     * files large enough that one core cannot keep up with the disk.
+     */
+    public float[] aggregate(File file, final int categoryCount, ExecutorService executor, int parts)
+            throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            final long records = channel.size() / mRecordSize;
+            final int partCount = Math.max(parts, 1);
+            final long perPart = Math.max(1L, (records + partCount - 1) / partCount);
+
+            final List<Future<double[]>> results = new ArrayList<>();
+
+            for (long start = 0; start < records; start += perPart) {
+                final long from = start;
+                final long to = Math.min(records, start + perPart);
+
+                results.add(executor.submit(new Callable<double[]>() {
+                    @Override
+                    public double[] call() throws IOException {
+                        final double[] sums = new double[categoryCount];
+                        sumRange(channel, from, to, sums);
+                        return sums;
+                    }
+                }));
+            }
+
+            final double[] totals = new double[categoryCount];
+            for (Future<double[]> result : results) {
+                final double[] sums = result.get();
+                for (int i = 0; i < categoryCount; i++) {
+                    totals[i] += sums[i];
+                }
+            }
+            return toFloats(totals);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while aggregating " + file, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Cannot aggregate " + file, e.getCause());
+        } finally {
+            raf.close();
+        }
+    }
+
+    private void sumRange(FileChannel channel, long fromRecord, long toRecord, double[] sums) throws IOException {
+        final int categoryCount = sums.length;
+        final int recordsPerMap = (int) (MAX_MAP_BYTES / mRecordSize);
+
+        long record = fromRecord;
+
+        while (record < toRecord) {
+            final int count = (int) Math.min(recordsPerMap, toRecord - record);
+
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                    record * mRecordSize, (long) count * mRecordSize);
+            buffer.order(mOrder);
+
+            for (int i = 0, position = 0; i < count; i++, position += mRecordSize) {
+                final int category = buffer.getInt(position + mCategoryOffset);
+
+                if (category >= 0 && category < categoryCount) {
+                    sums[category] += buffer.getFloat(position + mValueOffset);
+                }
+            }
+
+            record += count;
+        }
+    }
+
+    private static float[] toFloats(double[] sums) {
+        final float[] result = new float[sums.length];
+        for (int i = 0; i < sums.length; i++) {
+            result[i] = (float) sums[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+package com.luantc.test.core;
+
+/**
+ * Drawing backend for {@link PiePainter}. Implementations exist for Java2D
+ * and for streaming vector output; an Android Canvas backend is a thin
+ * wrapper around drawArc and drawLine.
+ *
+ * Angles are in degrees, clockwise from 3 o'clock, y pointing down. Colors
+ * are packed ARGB ints.
+ */
+public interface PieCanvas {
+
+    /**
+     * Fills the annular sector between innerRadius and radius. An inner
+     * radius of 0 gives a plain pie wedge.
+     */
+    void fillWedge(float centerX, float centerY, float radius, float innerRadius,
+                   float startAngle, float sweepAngle, int color);
+
+    void strokeWedge(float centerX, float centerY, float radius, float innerRadius,
+                     float startAngle, float sweepAngle, float strokeWidth, int color);
+
+    void drawLine(float x0, float y0, float x1, float y1, float strokeWidth, int color);
+
+    void fillCircle(float centerX, float centerY, float radius, int color);
+}
@@ -0,0 +1,313 @@
+package com.luantc.test.core;
+
+/**
+ * Easing curves used by the chart animations, as plain math so they can be
+ * evaluated off Android, e.g. to render a specific animation frame on a
+ * server. The Android animation package adapts these to TimeInterpolator.
+ *
+ * @author Daniel Cohen Gindi
+ */
+public enum PieEasing {
+
+    Linear {
+        @Override
+        public float interpolate(float input) {
+            return input;
+        }
+    },
+
+    EaseInQuad {
+        @Override
+        public float interpolate(float input) {
+            return input * input;
+        }
+    },
+
+    EaseOutQuad {
+        @Override
+        public float interpolate(float input) {
+            return -input * (input - 2f);
+        }
+    },
+
+    EaseInOutQuad {
+        @Override
+        public float interpolate(float input) {
+            float position = input / 0.5f;
+
+            if (position < 1.f) {
+                return 0.5f * position * position;
+            }
+
+            return -0.5f * ((--position) * (position - 2.f) - 1.f);
+        }
+    },
+
+    EaseInCubic {
+        @Override
+        public float interpolate(float input) {
+            return input * input * input;
+        }
+    },
+
+    EaseOutCubic {
+        @Override
+        public float interpolate(float input) {
+            input--;
+            return (input * input * input + 1.f);
+        }
+    },
+
+    EaseInOutCubic {
+        @Override
+        public float interpolate(float input) {
+            float position = input / 0.5f;
+            if (position < 1.f) {
+                return 0.5f * position * position * position;
+            }
+            position -= 2.f;
+            return 0.5f * (position * position * position + 2.f);
+        }
+    },
+
+    EaseInQuart {
+        @Override
+        public float interpolate(float input) {
+            return input * input * input * input;
+        }
+    },
+
+    EaseOutQuart {
+        @Override
+        public float interpolate(float input) {
+            input--;
+            return -(input * input * input * input - 1f);
+        }
+    },
+
+    EaseInOutQuart {
+        @Override
+        public float interpolate(float input) {
+            float position = input / 0.5f;
+            if (position < 1.f) {
+                return 0.5f * position * position * position * position;
+            }
+            position -= 2.f;
+            return -0.5f * (position * position * position * position - 2.f);
+        }
+    },
+
+    EaseInSine {
+        @Override
+        public float interpolate(float input) {
+            return -(float) Math.cos(input * (Math.PI / 2.f)) + 1.f;
+        }
+    },
+
+    EaseOutSine {
+        @Override
+        public float interpolate(float input) {
+            return (float) Math.sin(input * (Math.PI / 2.f));
+        }
+    },
+
+    EaseInOutSine {
+        @Override
+        public float interpolate(float input) {
+            return -0.5f * ((float) Math.cos(Math.PI * input) - 1.f);
+        }
+    },
+
+    EaseInExpo {
+        @Override
+        public float interpolate(float input) {
+            return (input == 0) ? 0.f : (float) Math.pow(2.f, 10.f * (input - 1.f));
+        }
+    },
+
+    EaseOutExpo {
+        @Override
+        public float interpolate(float input) {
+            return (input == 1f) ? 1.f : (-(float) Math.pow(2.f, -10.f * (input + 1.f)));
+        }
+    },
+
+    EaseInOutExpo {
+        @Override
+        public float interpolate(float input) {
+            if (input == 0) {
+                return 0.f;
+            }
+            if (input == 1f) {
+                return 1.f;
+            }
+
+            float position = input / 0.5f;
+            if (position < 1.f) {
+                return 0.5f * (float) Math.pow(2.f, 10.f * (position - 1.f));
+            }
+            return 0.5f * (-(float) Math.pow(2.f, -10.f * --position) + 2.f);
+        }
+    },
+
+    EaseInCirc {
+        @Override
+        public float interpolate(float input) {
+            return -((float) Math.sqrt(1.f - input * input) - 1.f);
+        }
+    },
+
+    EaseOutCirc {
+        @Override
+        public float interpolate(float input) {
+            input--;
+            return (float) Math.sqrt(1.f - input * input);
+        }
+    },
+
+    EaseInOutCirc {
+        @Override
+        public float interpolate(float input) {
+            float position = input / 0.5f;
+            if (position < 1.f) {
+                return -0.5f * ((float) Math.sqrt(1.f - position * position) - 1.f);
+            }
+            return 0.5f * ((float) Math.sqrt(1.f - (position -= 2.f) * position) + 1.f);
+        }
+    },
+
+    EaseInElastic {
+        @Override
+        public float interpolate(float input) {
+            if (input == 0) {
+                return 0.f;
+            }
+
+            float position = input;
+            if (position == 1) {
+                return 1.f;
+            }
+
+            float p = .3f;
+            float s = p / (2.f * (float) Math.PI) * (float) Math.asin(1.f);
+            return -((float) Math.pow(2.f, 10.f * (position -= 1.f))
+                    * (float) Math.sin((position - s) * (2.f * Math.PI) / p));
+        }
+    },
+
+    EaseOutElastic {
+        @Override
+        public float interpolate(float input) {
+            if (input == 0) {
+                return 0.f;
+            }
+
+            float position = input;
+            if (position == 1) {
+                return 1.f;
+            }
+
+            float p = .3f;
+            float s = p / (2 * (float) Math.PI) * (float) Math.asin(1.f);
+            return (float) Math.pow(2, -10 * position)
+                    * (float) Math.sin((position - s) * (2.f * Math.PI) / p) + 1.f;
+        }
+    },
+
+    EaseInOutElastic {
+        @Override
+        public float interpolate(float input) {
+            if (input == 0) {
+                return 0.f;
+            }
+
+            float position = input / 0.5f;
+            if (position == 2) {
+                return 1.f;
+            }
+
+            float p = (.3f * 1.5f);
+            float s = p / (2.f * (float) Math.PI) * (float) Math.asin(1.f);
+            if (position < 1.f) {
+                return -.5f
+                        * ((float) Math.pow(2.f, 10.f * (position -= 1.f))
+                        * (float) Math.sin((position * 1f - s) * (2.f * Math.PI) / p));
+            }
+            return (float) Math.pow(2.f, -10.f * (position -= 1.f))
+                    * (float) Math.sin((position * 1f - s) * (2.f * Math.PI) / p) * .5f
+                    + 1.f;
+        }
+    },
+
+    EaseInBack {
+        @Override
+        public float interpolate(float input) {
+            final float s = 1.70158f;
+            float position = input;
+            return position * position * ((s + 1.f) * position - s);
+        }
+    },
+
+    EaseOutBack {
+        @Override
+        public float interpolate(float input) {
+            final float s = 1.70158f;
+            float position = input;
+            position--;
+            return (position * position * ((s + 1.f) * position + s) + 1.f);
+        }
+    },
+
+    EaseInOutBack {
+        @Override
+        public float interpolate(float input) {
+            float s = 1.70158f;
+            float position = input / 0.5f;
+            if (position < 1.f) {
+                return 0.5f * (position * position * (((s *= (1.525f)) + 1.f) *
+                        position - s));
+            }
+            return 0.5f * ((position -= 2.f) * position
+                    * (((s *= (1.525f)) + 1.f) * position + s) + 2.f);
+        }
+    },
+
+    EaseInBounce {
+        @Override
+        public float interpolate(float input) {
+            return 1.f - EaseOutBounce.interpolate(1f - input);
+        }
+    },
+
+    EaseOutBounce {
+        @Override
+        public float interpolate(float input) {
+            float position = input;
+            if (position < (1.f / 2.75f)) {
+                return (7.5625f * position * position);
+            } else if (position < (2.f / 2.75f)) {
+                return (7.5625f * (position -= (1.5f / 2.75f)) * position + .75f);
+            } else if (position < (2.5f / 2.75f)) {
+                return (7.5625f * (position -= (2.25f / 2.75f)) * position + .9375f);
+            } else {
+                return (7.5625f * (position -= (2.625f / 2.75f)) * position + .984375f);
+            }
+        }
+    },
+
+    EaseInOutBounce {
+        @Override
+        public float interpolate(float input) {
+            if (input < 0.5f) {
+                return EaseInBounce.interpolate(input * 2) * .5f;
+            }
+            return EaseOutBounce.interpolate(input * 2 - 1f) * .5f + .5f;
+        }
+    };
+
+    /**
+     * @param input animation progress in the 0..1 range
+     * @return the eased progress
+     */
+    public abstract float interpolate(float input);
+}
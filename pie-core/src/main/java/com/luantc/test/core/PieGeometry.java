@@ -0,0 +1,252 @@
+package com.luantc.test.core;
+
+/**
+ * Slice angles of a pie and the math built on them: points on the circle,
+ * wedge bounding boxes and hit-testing. No Android dependencies.
+ *
+ * Angles are in degrees, clockwise from 3 o'clock with y pointing down,
+ * which is what android.graphics.Canvas and CircleLayout use.
+ */
+public final class PieGeometry {
+
+    private final float mCenterX;
+    private final float mCenterY;
+    private final float mRadius;
+    private final float mInnerRadius;
+    private final float mAngleOffset;
+    private final float mAngleRange;
+
+    private final float[] mStartAngles;
+    private final float[] mEndAngles;
+
+    private PieGeometry(float centerX, float centerY, float radius, float innerRadius,
+                        float angleOffset, float angleRange, float[] startAngles, float[] endAngles) {
+        mCenterX = centerX;
+        mCenterY = centerY;
+        mRadius = radius;
+        mInnerRadius = innerRadius;
+        mAngleOffset = angleOffset;
+        mAngleRange = angleRange;
+        mStartAngles = startAngles;
+        mEndAngles = endAngles;
+    }
+
+    /**
+     * @param percentages slice sizes in the 0..100 range
+     */
+    public static PieGeometry fromPercentages(float[] percentages, float centerX, float centerY, float radius,
+                                              float innerRadius, float angleOffset, float angleRange) {
+        final int count = percentages.length;
+        final float[] starts = new float[count];
+        final float[] ends = new float[count];
+
+        float startAngle = angleOffset;
+
+        for (int i = 0; i < count; i++) {
+            starts[i] = startAngle;
+            startAngle += angleRange * (percentages[i] / 100);
+            ends[i] = startAngle;
+        }
+
+        return new PieGeometry(centerX, centerY, radius, innerRadius, angleOffset, angleRange, starts, ends);
+    }
+
+    /**
+     * Normalizes raw values to their share of the total.
+     */
+    public static PieGeometry fromValues(float[] values, float centerX, float centerY, float radius,
+                                         float innerRadius, float angleOffset, float angleRange) {
+        float total = 0f;
+        for (float value : values) {
+            total += value;
+        }
+
+        final float[] percentages = new float[values.length];
+        if (total > 0f) {
+            for (int i = 0; i < values.length; i++) {
+                percentages[i] = values[i] / total * 100f;
+            }
+        }
+
+        return fromPercentages(percentages, centerX, centerY, radius, innerRadius, angleOffset, angleRange);
+    }
+
+    /**
+     * Wraps angles that were already laid out, e.g. by CircleLayout.onLayout.
+     * The arrays are used as they are, not copied.
+     */
+    public static PieGeometry fromAngles(float[] startAngles, float[] endAngles, float centerX, float centerY,
+                                         float radius, float innerRadius, float angleOffset, float angleRange) {
+        return new PieGeometry(centerX, centerY, radius, innerRadius, angleOffset, angleRange,
+                startAngles, endAngles);
+    }
+
+    public int getCount() {
+        return mStartAngles.length;
+    }
+
+    public float getCenterX() {
+        return mCenterX;
+    }
+
+    public float getCenterY() {
+        return mCenterY;
+    }
+
+    public float getRadius() {
+        return mRadius;
+    }
+
+    public float getInnerRadius() {
+        return mInnerRadius;
+    }
+
+    public float getAngleOffset() {
+        return mAngleOffset;
+    }
+
+    public float getAngleRange() {
+        return mAngleRange;
+    }
+
+    public float getStartAngle(int index) {
+        return mStartAngles[index];
+    }
+
+    public float getEndAngle(int index) {
+        return mEndAngles[index];
+    }
+
+    public float getSweepAngle(int index) {
+        return mEndAngles[index] - mStartAngles[index];
+    }
+
+    public float getCenterAngle(int index) {
+        return (mStartAngles[index] + mEndAngles[index]) / 2f;
+    }
+
+    public float pointX(float angle, float radius) {
+        return mCenterX + radius * (float) Math.cos(Math.toRadians(angle));
+    }
+
+    public float pointY(float angle, float radius) {
+        return mCenterY + radius * (float) Math.sin(Math.toRadians(angle));
+    }
+
+    /**
+     * @return the index of the slice under the point, or -1 if the point is
+     * inside the inner radius, outside the pie or in the part of the circle
+     * not covered by the angle range
+     */
+    public int hitTest(float x, float y) {
+        final float dx = x - mCenterX;
+        final float dy = y - mCenterY;
+        final float distance = (float) Math.sqrt(dx * dx + dy * dy);
+
+        if (distance < mInnerRadius || distance > mRadius) {
+            return -1;
+        }
+
+        return indexOfAngle((float) Math.toDegrees(Math.atan2(dy, dx)));
+    }
+
+    /**
+     * @return the index of the slice covering the absolute angle, or -1
+     */
+    public int indexOfAngle(float angle) {
+        final int count = mStartAngles.length;
+        if (count == 0) {
+            return -1;
+        }
+
+        // Measure everything from the first slice's start so a single binary
+        // search works regardless of offset and wrap-around
+        final float origin = mStartAngles[0];
+        final float relative = normalize(angle - origin);
+
+        if (relative > mEndAngles[count - 1] - origin) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = count - 1;
+
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+
+            if (mEndAngles[mid] - origin < relative) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Bounding box of the slice's wedge: the center, both arc ends and every
+     * axis extreme the arc passes.
+     *
+     * @param out left, top, right, bottom
+     */
+    public void getWedgeBounds(int index, float[] out) {
+        wedgeBounds(mCenterX, mCenterY, mRadius, mStartAngles[index], mEndAngles[index] - mStartAngles[index], out);
+    }
+
+    /**
+     * Bounding box of any wedge of a circle, as drawn by a pie canvas or
+     * android.graphics.Canvas.drawArc(oval, start, sweep, true, paint).
+     *
+     * @param out left, top, right, bottom
+     */
+    public static void wedgeBounds(float centerX, float centerY, float radius, float startAngle, float sweepAngle,
+                                   float[] out) {
+        if (sweepAngle >= 360f) {
+            out[0] = centerX - radius;
+            out[1] = centerY - radius;
+            out[2] = centerX + radius;
+            out[3] = centerY + radius;
+            return;
+        }
+
+        out[0] = out[2] = centerX;
+        out[1] = out[3] = centerY;
+
+        final float end = startAngle + sweepAngle;
+        unionPoint(out, centerX, centerY, radius, startAngle);
+        unionPoint(out, centerX, centerY, radius, end);
+
+        float axis = (float) Math.ceil(startAngle / 90f) * 90f;
+        while (axis < end) {
+            unionPoint(out, centerX, centerY, radius, axis);
+            axis += 90f;
+        }
+    }
+
+    private static void unionPoint(float[] bounds, float centerX, float centerY, float radius, float angle) {
+        final double radians = Math.toRadians(angle);
+        union(bounds, centerX + radius * (float) Math.cos(radians), centerY + radius * (float) Math.sin(radians));
+    }
+
+    /**
+     * Conservative test whether the slice's wedge touches a rectangle, based
+     * on the wedge's bounding box.
+     */
+    public boolean intersects(int index, float left, float top, float right, float bottom, float[] scratch) {
+        getWedgeBounds(index, scratch);
+        return scratch[0] < right && left < scratch[2] && scratch[1] < bottom && top < scratch[3];
+    }
+
+    private static void union(float[] bounds, float x, float y) {
+        if (x < bounds[0]) bounds[0] = x;
+        if (y < bounds[1]) bounds[1] = y;
+        if (x > bounds[2]) bounds[2] = x;
+        if (y > bounds[3]) bounds[3] = y;
+    }
+
+    private static float normalize(float angle) {
+        angle %= 360f;
+        return angle < 0f ? angle + 360f : angle;
+    }
+}
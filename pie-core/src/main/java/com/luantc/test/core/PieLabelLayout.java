@@ -0,0 +1,275 @@
+package com.luantc.test.core;
+
+import java.util.Arrays;
+
+/**
+ * Places slice labels outside a pie, in a column on each side, with a leader
+ * line from the rim to every label.
+ *
+ * Each label wants to sit level with its slice's center. On each side the
+ * labels are sorted by that height once, then two linear sweeps push them
+ * apart: downwards until none overlaps the one above, then upwards off the
+ * bottom edge. If a side cannot hold all its labels, those of the narrowest
+ * slices are hidden first. Layout is O(n log n) and allocation free apart
+ * from the result arrays; keep the result while {@link #isLayoutFor} holds.
+ */
+public final class PieLabelLayout {
+
+    private final float mRadius;
+    private final float mLeaderLength;
+    private final float mLabelHeight;
+    private final float mGap;
+    private final float mTop;
+    private final float mBottom;
+
+    private final float mCenterX;
+    private final float mCenterY;
+    private final float[] mCenterAngles;
+
+    private final float[] mLabelX;
+    private final float[] mLabelY;
+    private final boolean[] mRight;
+    private final boolean[] mVisible;
+    private float[] mLeaderLines;
+
+    private PieLabelLayout(PieGeometry geometry, float radius, float leaderLength, float labelHeight,
+                           float gap, float top, float bottom) {
+        final int count = geometry.getCount();
+
+        mRadius = radius;
+        mLeaderLength = leaderLength;
+        mLabelHeight = labelHeight;
+        mGap = gap;
+        mTop = top;
+        mBottom = bottom;
+
+        mCenterX = geometry.getCenterX();
+        mCenterY = geometry.getCenterY();
+        mCenterAngles = new float[count];
+
+        mLabelX = new float[count];
+        mLabelY = new float[count];
+        mRight = new boolean[count];
+        mVisible = new boolean[count];
+    }
+
+    /**
+     * @param radius rim of the pie, where leader lines start
+     * @param leaderLength distance from the rim to the label columns
+     * @param labelHeight height of one label
+     * @param gap minimum space between two labels
+     * @param top upper limit of the label columns
+     * @param bottom lower limit of the label columns
+     */
+    public static PieLabelLayout compute(PieGeometry geometry, float radius, float leaderLength,
+                                         float labelHeight, float gap, float top, float bottom) {
+        final PieLabelLayout layout = new PieLabelLayout(geometry, radius, leaderLength, labelHeight,
+                gap, top, bottom);
+        layout.layout(geometry);
+        return layout;
+    }
+
+    /**
+     * @return true if this layout was computed for the same slice angles,
+     * center and parameters, so it can be reused as is
+     */
+    public boolean isLayoutFor(PieGeometry geometry, float radius, float leaderLength, float labelHeight,
+                               float gap, float top, float bottom) {
+        final int count = geometry.getCount();
+
+        if (count != mCenterAngles.length
+                || geometry.getCenterX() != mCenterX || geometry.getCenterY() != mCenterY
+                || radius != mRadius || leaderLength != mLeaderLength || labelHeight != mLabelHeight
+                || gap != mGap || top != mTop || bottom != mBottom) {
+            return false;
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (geometry.getCenterAngle(i) != mCenterAngles[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void layout(PieGeometry geometry) {
+        final int count = mCenterAngles.length;
+        final float elbowRadius = mRadius + mLeaderLength / 2f;
+
+        // Labels of each side packed as sortable (key, index) longs
+        final long[] left = new long[count];
+        final long[] right = new long[count];
+        int leftCount = 0;
+        int rightCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            final float angle = geometry.getCenterAngle(i);
+            mCenterAngles[i] = angle;
+
+            final float sweep = geometry.getSweepAngle(i);
+            if (sweep <= 0f) {
+                continue;
+            }
+
+            final boolean isRight = Math.cos(Math.toRadians(angle)) >= 0;
+            mRight[i] = isRight;
+            mVisible[i] = true;
+
+            if (isRight) {
+                right[rightCount++] = pack(sweep, i);
+            } else {
+                left[leftCount++] = pack(sweep, i);
+            }
+        }
+
+        layoutSide(geometry, right, rightCount, elbowRadius);
+        layoutSide(geometry, left, leftCount, elbowRadius);
+
+        buildLeaderLines(elbowRadius);
+    }
+
+    private void layoutSide(PieGeometry geometry, long[] side, int count, float elbowRadius) {
+        final float pitch = mLabelHeight + mGap;
+        final int slots = (int) ((mBottom - mTop + mGap) / pitch);
+
+        int start = 0;
+
+        if (count > slots) {
+            // Sorted by sweep, the narrowest slices come first
+            Arrays.sort(side, 0, count);
+            start = count - Math.max(slots, 0);
+
+            for (int i = 0; i < start; i++) {
+                mVisible[index(side[i])] = false;
+            }
+        }
+
+        // Re-key the visible labels by their preferred height
+        for (int i = start; i < count; i++) {
+            final int index = index(side[i]);
+            mLabelY[index] = geometry.pointY(mCenterAngles[index], elbowRadius);
+            side[i] = pack(mLabelY[index], index);
+        }
+        Arrays.sort(side, start, count);
+
+        final float half = mLabelHeight / 2f;
+
+        // Downwards: each label at its preferred height or just below the previous one
+        float minY = mTop + half;
+        for (int i = start; i < count; i++) {
+            final int index = index(side[i]);
+            final float y = Math.max(mLabelY[index], minY);
+            mLabelY[index] = y;
+            minY = y + pitch;
+        }
+
+        // Upwards: pull the labels that went past the bottom back up
+        float maxY = mBottom - half;
+        for (int i = count - 1; i >= start; i--) {
+            final int index = index(side[i]);
+            final float y = Math.min(mLabelY[index], maxY);
+            mLabelY[index] = y;
+            maxY = y - pitch;
+        }
+
+        for (int i = start; i < count; i++) {
+            final int index = index(side[i]);
+            final float offset = mRadius + mLeaderLength;
+            mLabelX[index] = mRight[index] ? mCenterX + offset : mCenterX - offset;
+        }
+    }
+
+    private void buildLeaderLines(float elbowRadius) {
+        final int count = mCenterAngles.length;
+
+        int visible = 0;
+        for (int i = 0; i < count; i++) {
+            if (mVisible[i]) {
+                visible++;
+            }
+        }
+
+        final float[] lines = new float[visible * 8];
+        int offset = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (!mVisible[i]) {
+                continue;
+            }
+
+            final double radians = Math.toRadians(mCenterAngles[i]);
+            final float cos = (float) Math.cos(radians);
+            final float sin = (float) Math.sin(radians);
+
+            final float elbowX = mCenterX + elbowRadius * cos;
+            final float elbowY = mCenterY + elbowRadius * sin;
+
+            lines[offset++] = mCenterX + mRadius * cos;
+            lines[offset++] = mCenterY + mRadius * sin;
+            lines[offset++] = elbowX;
+            lines[offset++] = elbowY;
+
+            lines[offset++] = elbowX;
+            lines[offset++] = elbowY;
+            lines[offset++] = mLabelX[i];
+            lines[offset++] = mLabelY[i];
+        }
+
+        mLeaderLines = lines;
+    }
+
+    /**
+     * Packs a float key and an index into a long whose natural order is
+     * the order of the keys.
+     */
+    private static long pack(float key, int index) {
+        int bits = Float.floatToIntBits(key);
+        bits ^= (bits >> 31) & 0x7fffffff;
+        return ((long) bits << 32) | (index & 0xffffffffL);
+    }
+
+    private static int index(long packed) {
+        return (int) packed;
+    }
+
+    public int getCount() {
+        return mCenterAngles.length;
+    }
+
+    /**
+     * @return false for labels hidden for lack of room and for empty slices
+     */
+    public boolean isVisible(int index) {
+        return mVisible[index];
+    }
+
+    /**
+     * @return true if the label is in the right column and reads from its
+     * anchor to the right, false if it ends at its anchor
+     */
+    public boolean isRightSide(int index) {
+        return mRight[index];
+    }
+
+    /**
+     * @return x of the end of the leader line, where the label is anchored
+     */
+    public float getLabelX(int index) {
+        return mLabelX[index];
+    }
+
+    /**
+     * @return vertical center of the label
+     */
+    public float getLabelY(int index) {
+        return mLabelY[index];
+    }
+
+    /**
+     * @return two segments per visible label, rim to elbow and elbow to
+     * label, as x0, y0, x1, y1 for a single drawLines call
+     */
+    public float[] getLeaderLines() {
+        return mLeaderLines;
+    }
+}
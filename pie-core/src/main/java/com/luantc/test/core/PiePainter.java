@@ -0,0 +1,110 @@
+package com.luantc.test.core;
+
+import java.util.BitSet;
+
+/**
+ * Draws a pie the way CircleLayout composites it: the wedges, the highlight
+ * borders of the highlighted and selected slices, the dividers between
+ * slices and finally the inner circle on top.
+ */
+public final class PiePainter {
+
+    private PiePainter() {
+    }
+
+    /**
+     * @param highlighted index of the slice to outline, or -1
+     */
+    public static void paint(PieGeometry geometry, PieStyle style, PieCanvas canvas, int highlighted) {
+        paint(geometry, style, canvas, single(highlighted));
+    }
+
+    /**
+     * @param highlighted indices of the slices to outline
+     */
+    public static void paint(PieGeometry geometry, PieStyle style, PieCanvas canvas, BitSet highlighted) {
+        paint(geometry, style, canvas, highlighted, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY,
+                Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @param highlighted index of the slice to outline, or -1
+     */
+    public static void paint(PieGeometry geometry, PieStyle style, PieCanvas canvas, int highlighted,
+                             float left, float top, float right, float bottom) {
+        paint(geometry, style, canvas, single(highlighted), left, top, right, bottom);
+    }
+
+    /**
+     * Paints only the part of the pie that can touch the given rectangle,
+     * e.g. one tile of a large export. Wedges whose bounding box misses the
+     * rectangle are skipped.
+     *
+     * @param highlighted indices of the slices to outline
+     */
+    public static void paint(PieGeometry geometry, PieStyle style, PieCanvas canvas, BitSet highlighted,
+                             float left, float top, float right, float bottom) {
+        final int count = geometry.getCount();
+
+        final float cx = geometry.getCenterX();
+        final float cy = geometry.getCenterY();
+        final float radius = geometry.getRadius();
+
+        // The stroke and anti-aliasing reach a little past the geometry
+        final float slop = Math.max(style.getHighlightWidth(), style.getDividerWidth()) + 1f;
+        left -= slop;
+        top -= slop;
+        right += slop;
+        bottom += slop;
+
+        if (cx + radius < left || cx - radius > right || cy + radius < top || cy - radius > bottom) {
+            return;
+        }
+
+        final float[] scratch = new float[4];
+        final float hole = style.hasHole() ? geometry.getInnerRadius() : 0f;
+
+        for (int i = 0; i < count; i++) {
+            if (geometry.intersects(i, left, top, right, bottom, scratch)) {
+                canvas.fillWedge(cx, cy, radius, hole, geometry.getStartAngle(i), geometry.getSweepAngle(i),
+                        style.getSliceColor(i));
+            }
+        }
+
+        for (int i = highlighted.nextSetBit(0); i >= 0 && i < count; i = highlighted.nextSetBit(i + 1)) {
+            if (geometry.intersects(i, left, top, right, bottom, scratch)) {
+                canvas.strokeWedge(cx, cy, radius, hole, geometry.getStartAngle(i),
+                        geometry.getSweepAngle(i), style.getHighlightWidth(), style.getHighlightColor());
+            }
+        }
+
+        if (count > 1) {
+            for (int i = 0; i <= count; i++) {
+                final float angle = i < count ? geometry.getStartAngle(i) : geometry.getEndAngle(count - 1);
+                final float x0 = geometry.pointX(angle, hole);
+                final float y0 = geometry.pointY(angle, hole);
+                final float x = geometry.pointX(angle, radius);
+                final float y = geometry.pointY(angle, radius);
+
+                if (Math.max(x0, x) >= left && Math.min(x0, x) <= right
+                        && Math.max(y0, y) >= top && Math.min(y0, y) <= bottom) {
+                    canvas.drawLine(x0, y0, x, y, style.getDividerWidth(), style.getDividerColor());
+                }
+            }
+        }
+
+        final float innerRadius = geometry.getInnerRadius();
+        if (style.hasInnerCircle() && !style.hasHole() && cx + innerRadius >= left && cx - innerRadius <= right
+                && cy + innerRadius >= top && cy - innerRadius <= bottom) {
+            canvas.fillCircle(cx, cy, innerRadius, style.getInnerCircleColor());
+        }
+    }
+
+    private static BitSet single(int index) {
+        final BitSet set = new BitSet();
+        if (index >= 0) {
+            set.set(index);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,247 @@
+package com.luantc.test.core;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+/**
+ * Everything needed to put a chart back exactly as it was: slice values,
+ * laid out angles, highlighted slices, the selected slice, rotation and,
+ * while the reveal is running, how far each slice has been revealed.
+ *
+ * The binary form is a few flags, the floats, and one bit per slice for the
+ * highlight set. Data written by version 1, without a selection, is still
+ * read. Contiguous slices, the usual case, share their boundary
+ * angles, so 1,000 slices take about 8 KB, or 12 KB mid-reveal.
+ */
+public final class PieState {
+
+    private static final byte VERSION = 2;
+
+    private static final int FLAG_CONTIGUOUS = 1;
+    private static final int FLAG_REVEALING = 1 << 1;
+    private static final int FLAG_SELECTED = 1 << 2;
+
+    private final float[] mValues;
+    private final float[] mStartAngles;
+    private final float[] mEndAngles;
+    private final BitSet mHighlighted;
+    private final float mRotation;
+    private final float[] mRevealSweeps;
+    private final int mSelectedIndex;
+
+    /**
+     * @param revealSweeps revealed sweep of each slice, or null if the reveal
+     *                     is not running
+     */
+    public PieState(float[] values, float[] startAngles, float[] endAngles, BitSet highlighted,
+                    float rotation, float[] revealSweeps) {
+        this(values, startAngles, endAngles, highlighted, rotation, revealSweeps, -1);
+    }
+
+    /**
+     * @param selectedIndex the selected slice, or -1
+     */
+    public PieState(float[] values, float[] startAngles, float[] endAngles, BitSet highlighted,
+                    float rotation, float[] revealSweeps, int selectedIndex) {
+        final int count = values.length;
+        if (startAngles.length != count || endAngles.length != count
+                || (revealSweeps != null && revealSweeps.length != count)) {
+            throw new IllegalArgumentException("Arrays must all have " + count + " slices");
+        }
+
+        mValues = values;
+        mStartAngles = startAngles;
+        mEndAngles = endAngles;
+        mHighlighted = highlighted;
+        mRotation = rotation;
+        mRevealSweeps = revealSweeps;
+        mSelectedIndex = selectedIndex >= 0 && selectedIndex < count ? selectedIndex : -1;
+    }
+
+    public int getCount() {
+        return mValues.length;
+    }
+
+    public float getValue(int index) {
+        return mValues[index];
+    }
+
+    public float getStartAngle(int index) {
+        return mStartAngles[index];
+    }
+
+    public float getEndAngle(int index) {
+        return mEndAngles[index];
+    }
+
+    public boolean isHighlighted(int index) {
+        return mHighlighted.get(index);
+    }
+
+    public float getRotation() {
+        return mRotation;
+    }
+
+    public boolean isRevealing() {
+        return mRevealSweeps != null;
+    }
+
+    public float getRevealSweep(int index) {
+        return mRevealSweeps[index];
+    }
+
+    /**
+     * @return the selected slice, or -1
+     */
+    public int getSelectedIndex() {
+        return mSelectedIndex;
+    }
+
+    public int getEncodedSize() {
+        final int count = mValues.length;
+
+        int size = 1 + 1 + 4 + 4; // version, flags, count, rotation
+        if (mSelectedIndex >= 0) {
+            size += 4;
+        }
+        size += count * 4;
+        size += (isContiguous() ? count + 1 : count * 2) * 4;
+        size += (count + 7) / 8;
+        if (mRevealSweeps != null) {
+            size += count * 4;
+        }
+        return size;
+    }
+
+    public byte[] encode() {
+        final ByteBuffer buffer = ByteBuffer.allocate(getEncodedSize());
+        encode(buffer);
+        return buffer.array();
+    }
+
+    public void encode(ByteBuffer out) {
+        final int count = mValues.length;
+        final boolean contiguous = isContiguous();
+
+        int flags = 0;
+        if (contiguous) flags |= FLAG_CONTIGUOUS;
+        if (mRevealSweeps != null) flags |= FLAG_REVEALING;
+        if (mSelectedIndex >= 0) flags |= FLAG_SELECTED;
+
+        out.put(VERSION);
+        out.put((byte) flags);
+        out.putInt(count);
+        out.putFloat(mRotation);
+        if (mSelectedIndex >= 0) {
+            out.putInt(mSelectedIndex);
+        }
+
+        for (int i = 0; i < count; i++) {
+            out.putFloat(mValues[i]);
+        }
+
+        if (contiguous) {
+            for (int i = 0; i < count; i++) {
+                out.putFloat(mStartAngles[i]);
+            }
+            if (count > 0) {
+                out.putFloat(mEndAngles[count - 1]);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                out.putFloat(mStartAngles[i]);
+                out.putFloat(mEndAngles[i]);
+            }
+        }
+
+        // BitSet.toByteArray drops trailing zero bytes, so pad to a fixed length
+        final byte[] bits = mHighlighted.toByteArray();
+        final int bitBytes = (count + 7) / 8;
+        out.put(bits, 0, Math.min(bits.length, bitBytes));
+        for (int i = bits.length; i < bitBytes; i++) {
+            out.put((byte) 0);
+        }
+
+        if (mRevealSweeps != null) {
+            for (int i = 0; i < count; i++) {
+                out.putFloat(mRevealSweeps[i]);
+            }
+        }
+    }
+
+    public static PieState decode(byte[] data) {
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the data is not a state written by
+     * a compatible version
+     */
+    public static PieState decode(ByteBuffer in) {
+        try {
+            final byte version = in.get();
+            if (version != 1 && version != VERSION) {
+                throw new IllegalArgumentException("Unsupported state version " + version);
+            }
+
+            final int flags = in.get();
+            final int count = in.getInt();
+            if (count < 0 || count > in.remaining() / 8) {
+                throw new IllegalArgumentException("Invalid slice count " + count);
+            }
+
+            final float rotation = in.getFloat();
+            final int selected = (flags & FLAG_SELECTED) != 0 ? in.getInt() : -1;
+
+            final float[] values = new float[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = in.getFloat();
+            }
+
+            final float[] starts = new float[count];
+            final float[] ends = new float[count];
+
+            if ((flags & FLAG_CONTIGUOUS) != 0) {
+                for (int i = 0; i < count; i++) {
+                    starts[i] = in.getFloat();
+                    if (i > 0) {
+                        ends[i - 1] = starts[i];
+                    }
+                }
+                if (count > 0) {
+                    ends[count - 1] = in.getFloat();
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    starts[i] = in.getFloat();
+                    ends[i] = in.getFloat();
+                }
+            }
+
+            final byte[] bits = new byte[(count + 7) / 8];
+            in.get(bits);
+
+            float[] sweeps = null;
+            if ((flags & FLAG_REVEALING) != 0) {
+                sweeps = new float[count];
+                for (int i = 0; i < count; i++) {
+                    sweeps[i] = in.getFloat();
+                }
+            }
+
+            return new PieState(values, starts, ends, BitSet.valueOf(bits), rotation, sweeps, selected);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated state", e);
+        }
+    }
+
+    private boolean isContiguous() {
+        for (int i = 1; i < mStartAngles.length; i++) {
+            if (Float.floatToIntBits(mStartAngles[i]) != Float.floatToIntBits(mEndAngles[i - 1])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
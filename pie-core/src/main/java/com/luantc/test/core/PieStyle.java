@@ -0,0 +1,94 @@
+package com.luantc.test.core;
+
+/**
+ * Colors and stroke widths for {@link PiePainter}, with the same defaults as
+ * CircleLayout: a 1px divider, a white 5px highlight border and no inner
+ * circle.
+ */
+public class PieStyle {
+
+    private static final int[] DEFAULT_COLORS = {
+            0xff3f51b5, 0xffff4081, 0xff4caf50, 0xffffc107, 0xff9c27b0,
+            0xff00bcd4, 0xffff5722, 0xff8bc34a, 0xff607d8b, 0xffe91e63
+    };
+
+    private int[] mSliceColors = DEFAULT_COLORS;
+
+    private int mDividerColor = 0xffaaaaaa;
+    private float mDividerWidth = 1f;
+
+    private boolean mHasInnerCircle;
+    private int mInnerCircleColor = 0xffffffff;
+
+    private int mHighlightColor = 0xffffffff;
+    private float mHighlightWidth = 5f;
+
+    private boolean mHole;
+
+    /**
+     * Slice i is filled with colors[i % colors.length].
+     */
+    public PieStyle setSliceColors(int... colors) {
+        mSliceColors = colors;
+        return this;
+    }
+
+    public int getSliceColor(int index) {
+        return mSliceColors[index % mSliceColors.length];
+    }
+
+    public PieStyle setDivider(int color, float width) {
+        mDividerColor = color;
+        mDividerWidth = width;
+        return this;
+    }
+
+    public int getDividerColor() {
+        return mDividerColor;
+    }
+
+    public float getDividerWidth() {
+        return mDividerWidth;
+    }
+
+    public PieStyle setInnerCircleColor(int color) {
+        mInnerCircleColor = color;
+        mHasInnerCircle = true;
+        return this;
+    }
+
+    public boolean hasInnerCircle() {
+        return mHasInnerCircle;
+    }
+
+    public int getInnerCircleColor() {
+        return mInnerCircleColor;
+    }
+
+    public PieStyle setHighlight(int color, float width) {
+        mHighlightColor = color;
+        mHighlightWidth = width;
+        return this;
+    }
+
+    public int getHighlightColor() {
+        return mHighlightColor;
+    }
+
+    public float getHighlightWidth() {
+        return mHighlightWidth;
+    }
+
+    /**
+     * Draws the wedges as rings that leave the center inside the geometry's
+     * inner radius unpainted, instead of covering it with the inner circle.
+     */
+    public PieStyle setHole(boolean hole) {
+        mHole = hole;
+        return this;
+    }
+
+    public boolean hasHole() {
+        return mHole;
+    }
+}
@@ -0,0 +1,142 @@
+package com.luantc.test.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Encodes an 8-bit RGBA PNG one row at a time. Rows are deflated as they
+ * arrive and flushed in fixed-size IDAT chunks, so only one row and one chunk
+ * are held in memory regardless of the image size.
+ */
+public class StreamingPngWriter {
+
+    private static final byte[] SIGNATURE = {
+            (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'
+    };
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final OutputStream mOut;
+    private final int mWidth;
+    private final int mHeight;
+
+    private final Deflater mDeflater;
+    private final CRC32 mCrc = new CRC32();
+
+    private final byte[] mRow;
+    private final byte[] mChunk = new byte[CHUNK_SIZE];
+    private final byte[] mHeader = new byte[8];
+
+    private int mRowsWritten;
+
+    public StreamingPngWriter(OutputStream out, int width, int height) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid size " + width + "x" + height);
+        }
+
+        mOut = out;
+        mWidth = width;
+        mHeight = height;
+        mDeflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+
+        // One filter type byte followed by four bytes per pixel
+        mRow = new byte[1 + width * 4];
+
+        mOut.write(SIGNATURE);
+
+        final byte[] ihdr = new byte[13];
+        putInt(ihdr, 0, width);
+        putInt(ihdr, 4, height);
+        ihdr[8] = 8; // bit depth
+        ihdr[9] = 6; // color type RGBA
+        writeChunk("IHDR", ihdr, ihdr.length);
+    }
+
+    public int getWidth() {
+        return mWidth;
+    }
+
+    public int getHeight() {
+        return mHeight;
+    }
+
+    /**
+     * @param argb non-premultiplied ARGB pixels, as returned by
+     *             Bitmap.getPixels or BufferedImage.getRGB
+     * @param offset index of the row's first pixel
+     */
+    public void writeRow(int[] argb, int offset) throws IOException {
+        if (mRowsWritten == mHeight) {
+            throw new IllegalStateException("All " + mHeight + " rows already written");
+        }
+
+        final byte[] row = mRow;
+        row[0] = 0; // no filter
+
+        for (int x = 0, i = 1; x < mWidth; x++) {
+            final int pixel = argb[offset + x];
+            row[i++] = (byte) (pixel >> 16);
+            row[i++] = (byte) (pixel >> 8);
+            row[i++] = (byte) pixel;
+            row[i++] = (byte) (pixel >>> 24);
+        }
+
+        mDeflater.setInput(row);
+        while (!mDeflater.needsInput()) {
+            drain();
+        }
+
+        mRowsWritten++;
+    }
+
+    /**
+     * Writes the remaining compressed data and the end marker. Does not close
+     * the stream.
+     */
+    public void finish() throws IOException {
+        if (mRowsWritten != mHeight) {
+            throw new IllegalStateException("Only " + mRowsWritten + " of " + mHeight + " rows written");
+        }
+
+        mDeflater.finish();
+        while (!mDeflater.finished()) {
+            drain();
+        }
+        mDeflater.end();
+
+        writeChunk("IEND", mChunk, 0);
+        mOut.flush();
+    }
+
+    private void drain() throws IOException {
+        final int length = mDeflater.deflate(mChunk);
+        if (length > 0) {
+            writeChunk("IDAT", mChunk, length);
+        }
+    }
+
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        putInt(mHeader, 0, length);
+        for (int i = 0; i < 4; i++) {
+            mHeader[4 + i] = (byte) type.charAt(i);
+        }
+        mOut.write(mHeader, 0, 8);
+        mOut.write(data, 0, length);
+
+        mCrc.reset();
+        mCrc.update(mHeader, 4, 4);
+        mCrc.update(data, 0, length);
+
+        putInt(mHeader, 0, (int) mCrc.getValue());
+        mOut.write(mHeader, 0, 4);
+    }
+
+    private static void putInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+}
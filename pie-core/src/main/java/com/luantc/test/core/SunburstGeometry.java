@@ -0,0 +1,282 @@
+package com.luantc.test.core;
+
+import java.util.Arrays;
+
+/**
+ * Concentric rings of wedges, laid out either from a {@link SunburstNode}
+ * tree, where each ring holds the children of the wedges inside it, or from
+ * independent slice sets, one per ring.
+ *
+ * Wedges whose outer arc would be shorter than a minimum length are culled
+ * together with everything below them, so the work grows with what is
+ * visible rather than with the size of the hierarchy. Within a ring, wedges
+ * are kept in angle order for a binary search, so hit-testing is a radius
+ * division followed by a logarithmic lookup.
+ */
+public final class SunburstGeometry {
+
+    private final float mCenterX;
+    private final float mCenterY;
+    private final float mInnerRadius;
+    private final float mRingWidth;
+    private final float mAngleOffset;
+    private final float mAngleRange;
+
+    private final Ring[] mRings;
+    private int mCulledCount;
+
+    private static final class Ring {
+        float[] starts = new float[16];
+        float[] ends = new float[16];
+        int[] branches = new int[16];
+        SunburstNode[] nodes = new SunburstNode[16];
+        int count;
+
+        void add(float start, float end, int branch, SunburstNode node) {
+            if (count == starts.length) {
+                final int capacity = count * 2;
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                branches = Arrays.copyOf(branches, capacity);
+                nodes = Arrays.copyOf(nodes, capacity);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            branches[count] = branch;
+            nodes[count] = node;
+            count++;
+        }
+    }
+
+    private SunburstGeometry(float centerX, float centerY, float innerRadius, float ringWidth,
+                             float angleOffset, float angleRange, int ringCount) {
+        mCenterX = centerX;
+        mCenterY = centerY;
+        mInnerRadius = innerRadius;
+        mRingWidth = ringWidth;
+        mAngleOffset = angleOffset;
+        mAngleRange = angleRange;
+
+        mRings = new Ring[ringCount];
+        for (int i = 0; i < ringCount; i++) {
+            mRings[i] = new Ring();
+        }
+    }
+
+    /**
+     * The root's children form the innermost ring, their children the next,
+     * and so on for at most maxRings rings, which share the space between the
+     * inner and outer radius equally.
+     *
+     * @param minArcLength wedges with a shorter outer arc, in pixels, are
+     *                     skipped with their subtrees, e.g. 0.5
+     */
+    public static SunburstGeometry fromTree(SunburstNode root, float centerX, float centerY,
+                                            float innerRadius, float outerRadius, float angleOffset,
+                                            float angleRange, int maxRings, float minArcLength) {
+        final int rings = Math.max(0, Math.min(root.getDepth() - 1, maxRings));
+        final float ringWidth = rings > 0 ? (outerRadius - innerRadius) / rings : 0f;
+
+        final SunburstGeometry geometry = new SunburstGeometry(centerX, centerY, innerRadius, ringWidth,
+                angleOffset, angleRange, rings);
+
+        if (rings > 0 && root.getTotal() > 0f) {
+            geometry.layoutChildren(root, 0, angleOffset, angleRange, -1, minArcLength);
+        }
+        return geometry;
+    }
+
+    /**
+     * @param ringValues raw slice values of each ring, innermost first; every
+     *                   ring is normalized to the full angle range on its own
+     */
+    public static SunburstGeometry fromRings(float[][] ringValues, float centerX, float centerY,
+                                             float innerRadius, float outerRadius, float angleOffset,
+                                             float angleRange, float minArcLength) {
+        final int rings = ringValues.length;
+        final float ringWidth = rings > 0 ? (outerRadius - innerRadius) / rings : 0f;
+
+        final SunburstGeometry geometry = new SunburstGeometry(centerX, centerY, innerRadius, ringWidth,
+                angleOffset, angleRange, rings);
+
+        for (int r = 0; r < rings; r++) {
+            final float[] values = ringValues[r];
+
+            float total = 0f;
+            for (float value : values) {
+                total += value;
+            }
+            if (total <= 0f) {
+                continue;
+            }
+
+            final float minSweep = geometry.minSweep(r, minArcLength);
+            float start = angleOffset;
+
+            for (int i = 0; i < values.length; i++) {
+                final float sweep = angleRange * values[i] / total;
+
+                if (sweep >= minSweep && sweep > 0f) {
+                    geometry.mRings[r].add(start, start + sweep, i, null);
+                } else {
+                    geometry.mCulledCount++;
+                }
+                start += sweep;
+            }
+        }
+        return geometry;
+    }
+
+    private void layoutChildren(SunburstNode parent, int ring, float start, float sweep, int branch,
+                                float minArcLength) {
+        final int count = parent.getChildCount();
+        final float parentTotal = parent.getTotal();
+        final float minSweep = minSweep(ring, minArcLength);
+
+        float childStart = start;
+
+        for (int i = 0; i < count; i++) {
+            final SunburstNode child = parent.getChildAt(i);
+            final float childSweep = sweep * child.getTotal() / parentTotal;
+
+            if (childSweep >= minSweep && childSweep > 0f) {
+                final int childBranch = branch < 0 ? i : branch;
+                mRings[ring].add(childStart, childStart + childSweep, childBranch, child);
+
+                if (ring + 1 < mRings.length && child.getChildCount() > 0) {
+                    layoutChildren(child, ring + 1, childStart, childSweep, childBranch, minArcLength);
+                }
+            } else {
+                // Children are never wider than their parent, skip the subtree
+                mCulledCount++;
+            }
+
+            childStart += childSweep;
+        }
+    }
+
+    /**
+     * @return the sweep in degrees of an arc of the given length on the
+     * ring's outer edge
+     */
+    private float minSweep(int ring, float minArcLength) {
+        return (float) Math.toDegrees(minArcLength / getRingOuterRadius(ring));
+    }
+
+    public float getCenterX() {
+        return mCenterX;
+    }
+
+    public float getCenterY() {
+        return mCenterY;
+    }
+
+    public float getInnerRadius() {
+        return mInnerRadius;
+    }
+
+    public int getRingCount() {
+        return mRings.length;
+    }
+
+    public float getRingInnerRadius(int ring) {
+        return mInnerRadius + ring * mRingWidth;
+    }
+
+    public float getRingOuterRadius(int ring) {
+        return mInnerRadius + (ring + 1) * mRingWidth;
+    }
+
+    public int getSliceCount(int ring) {
+        return mRings[ring].count;
+    }
+
+    public float getStartAngle(int ring, int index) {
+        return mRings[ring].starts[index];
+    }
+
+    public float getEndAngle(int ring, int index) {
+        return mRings[ring].ends[index];
+    }
+
+    /**
+     * @return for a tree, the index of the innermost ancestor among the
+     * root's children; for independent rings, the slice's own index
+     */
+    public int getBranch(int ring, int index) {
+        return mRings[ring].branches[index];
+    }
+
+    /**
+     * @return the tree node, or null for geometry built from independent rings
+     */
+    public SunburstNode getNode(int ring, int index) {
+        return mRings[ring].nodes[index];
+    }
+
+    /**
+     * @return the number of wedges skipped as too small, not counting the
+     * descendants of skipped tree nodes
+     */
+    public int getCulledCount() {
+        return mCulledCount;
+    }
+
+    /**
+     * Finds the wedge under a point.
+     *
+     * @param out receives the ring and the slice index within it
+     * @return false if the point is inside the inner radius, outside the
+     * outermost ring or on an uncovered part of a ring
+     */
+    public boolean hitTest(float x, float y, int[] out) {
+        final float dx = x - mCenterX;
+        final float dy = y - mCenterY;
+        final float distance = (float) Math.sqrt(dx * dx + dy * dy);
+
+        if (mRings.length == 0 || distance < mInnerRadius || mRingWidth <= 0f) {
+            return false;
+        }
+
+        final int ring = (int) ((distance - mInnerRadius) / mRingWidth);
+        if (ring >= mRings.length) {
+            return false;
+        }
+
+        // Search relative to the offset so wrap-around needs no special case
+        final float angle = normalize((float) Math.toDegrees(Math.atan2(dy, dx)) - mAngleOffset);
+        if (angle > mAngleRange) {
+            return false;
+        }
+
+        final Ring wedges = mRings[ring];
+
+        int low = 0;
+        int high = wedges.count - 1;
+        int found = -1;
+
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+
+            if (wedges.starts[mid] - mAngleOffset <= angle) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        if (found < 0 || wedges.ends[found] - mAngleOffset < angle) {
+            return false;
+        }
+
+        out[0] = ring;
+        out[1] = found;
+        return true;
+    }
+
+    private static float normalize(float angle) {
+        angle %= 360f;
+        return angle < 0f ? angle + 360f : angle;
+    }
+}
@@ -0,0 +1,86 @@
+package com.luantc.test.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A node of the hierarchy drawn by a sunburst chart. Leaves carry values;
+ * a parent's size is the sum of its children, or its own value if that is
+ * larger, leaving the rest of its arc uncovered in the next ring.
+ */
+public class SunburstNode {
+
+    private final float mValue;
+    private final Object mTag;
+    private List<SunburstNode> mChildren;
+
+    private float mTotal = -1f;
+
+    public SunburstNode(float value, Object tag) {
+        mValue = value;
+        mTag = tag;
+    }
+
+    /**
+     * @return the child, for chaining further levels
+     */
+    public SunburstNode addChild(SunburstNode child) {
+        if (mChildren == null) {
+            mChildren = new ArrayList<>();
+        }
+        mChildren.add(child);
+        mTotal = -1f;
+        return child;
+    }
+
+    public SunburstNode addChild(float value, Object tag) {
+        return addChild(new SunburstNode(value, tag));
+    }
+
+    public float getValue() {
+        return mValue;
+    }
+
+    public Object getTag() {
+        return mTag;
+    }
+
+    public int getChildCount() {
+        return mChildren == null ? 0 : mChildren.size();
+    }
+
+    public SunburstNode getChildAt(int index) {
+        return mChildren.get(index);
+    }
+
+    public List<SunburstNode> getChildren() {
+        return mChildren == null ? Collections.<SunburstNode>emptyList() : mChildren;
+    }
+
+    /**
+     * Size of the node's arc relative to its siblings. Computed once; add
+     * every descendant before laying the tree out.
+     */
+    public float getTotal() {
+        if (mTotal < 0f) {
+            float sum = 0f;
+            for (int i = 0, count = getChildCount(); i < count; i++) {
+                sum += mChildren.get(i).getTotal();
+            }
+            mTotal = Math.max(mValue, sum);
+        }
+        return mTotal;
+    }
+
+    /**
+     * @return the number of levels below and including this node
+     */
+    public int getDepth() {
+        int depth = 0;
+        for (int i = 0, count = getChildCount(); i < count; i++) {
+            depth = Math.max(depth, mChildren.get(i).getDepth());
+        }
+        return depth + 1;
+    }
+}
@@ -0,0 +1,67 @@
+package com.luantc.test.core;
+
+/**
+ * Draws a {@link SunburstGeometry} in one pass: the wedges of every ring,
+ * outlined with the divider color, the highlighted wedge's border and the
+ * inner circle. Each branch takes its color from the style, getting lighter
+ * with every ring outwards.
+ */
+public final class SunburstPainter {
+
+    /** how much closer to white each ring gets, up to MAX_TINT */
+    private static final float RING_TINT = 0.15f;
+    private static final float MAX_TINT = 0.6f;
+
+    private SunburstPainter() {
+    }
+
+    /**
+     * @param highlightRing ring of the wedge to outline, or -1
+     */
+    public static void paint(SunburstGeometry geometry, PieStyle style, PieCanvas canvas,
+                             int highlightRing, int highlightIndex) {
+        final float cx = geometry.getCenterX();
+        final float cy = geometry.getCenterY();
+        final int rings = geometry.getRingCount();
+
+        for (int r = 0; r < rings; r++) {
+            final float inner = geometry.getRingInnerRadius(r);
+            final float outer = geometry.getRingOuterRadius(r);
+            final float tint = Math.min(MAX_TINT, r * RING_TINT);
+
+            for (int i = 0, count = geometry.getSliceCount(r); i < count; i++) {
+                final float start = geometry.getStartAngle(r, i);
+                final float sweep = geometry.getEndAngle(r, i) - start;
+                final int color = tint(style.getSliceColor(geometry.getBranch(r, i)), tint);
+
+                canvas.fillWedge(cx, cy, outer, inner, start, sweep, color);
+                canvas.strokeWedge(cx, cy, outer, inner, start, sweep,
+                        style.getDividerWidth(), style.getDividerColor());
+            }
+        }
+
+        if (highlightRing >= 0 && highlightRing < rings
+                && highlightIndex >= 0 && highlightIndex < geometry.getSliceCount(highlightRing)) {
+            final float start = geometry.getStartAngle(highlightRing, highlightIndex);
+            canvas.strokeWedge(cx, cy, geometry.getRingOuterRadius(highlightRing),
+                    geometry.getRingInnerRadius(highlightRing), start,
+                    geometry.getEndAngle(highlightRing, highlightIndex) - start,
+                    style.getHighlightWidth(), style.getHighlightColor());
+        }
+
+        if (style.hasInnerCircle() && !style.hasHole()) {
+            canvas.fillCircle(cx, cy, geometry.getInnerRadius(), style.getInnerCircleColor());
+        }
+    }
+
+    private static int tint(int color, float amount) {
+        final int r = (color >> 16) & 0xff;
+        final int g = (color >> 8) & 0xff;
+        final int b = color & 0xff;
+
+        return (color & 0xff000000)
+                | ((int) (r + (255 - r) * amount) << 16)
+                | ((int) (g + (255 - g) * amount) << 8)
+                | (int) (b + (255 - b) * amount);
+    }
+}
@@ -0,0 +1,261 @@
+package com.luantc.test.core;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * {@link PieCanvas} that streams SVG elements straight to a Writer as they are
+ * drawn. Nothing is kept per element, so memory use does not depend on the
+ * number of slices or charts written.
+ *
+ * Write errors are remembered and rethrown by {@link #finish()}, since the
+ * PieCanvas methods cannot throw.
+ */
+public class SvgPieCanvas implements PieCanvas {
+
+    private final Writer mOut;
+    private final char[] mNumber = new char[24];
+
+    private IOException mError;
+
+    /**
+     * Writes the opening svg tag. Wrap the Writer in a BufferedWriter unless
+     * it already buffers.
+     */
+    public SvgPieCanvas(Writer out, int width, int height) {
+        mOut = out;
+
+        write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"");
+        writeInt(width);
+        write("\" height=\"");
+        writeInt(height);
+        write("\" viewBox=\"0 0 ");
+        writeInt(width);
+        write(" ");
+        writeInt(height);
+        write("\">\n");
+    }
+
+    /**
+     * Writes the closing tag and flushes.
+     *
+     * @throws IOException the first error hit while writing this chart
+     */
+    public void finish() throws IOException {
+        write("</svg>\n");
+
+        if (mError == null) {
+            try {
+                mOut.flush();
+            } catch (IOException e) {
+                mError = e;
+            }
+        }
+
+        if (mError != null) {
+            throw mError;
+        }
+    }
+
+    @Override
+    public void fillWedge(float centerX, float centerY, float radius, float innerRadius,
+                          float startAngle, float sweepAngle, int color) {
+        write("<path d=\"");
+        writeWedgePath(centerX, centerY, radius, innerRadius, startAngle, sweepAngle);
+        write("\"");
+        writeColor(" fill", color);
+        write("/>\n");
+    }
+
+    @Override
+    public void strokeWedge(float centerX, float centerY, float radius, float innerRadius,
+                            float startAngle, float sweepAngle, float strokeWidth, int color) {
+        write("<path d=\"");
+        writeWedgePath(centerX, centerY, radius, innerRadius, startAngle, sweepAngle);
+        write("\" fill=\"none\" stroke-linejoin=\"round\" stroke-linecap=\"round\" stroke-width=\"");
+        writeNumber(strokeWidth);
+        write("\"");
+        writeColor(" stroke", color);
+        write("/>\n");
+    }
+
+    @Override
+    public void drawLine(float x0, float y0, float x1, float y1, float strokeWidth, int color) {
+        write("<line x1=\"");
+        writeNumber(x0);
+        write("\" y1=\"");
+        writeNumber(y0);
+        write("\" x2=\"");
+        writeNumber(x1);
+        write("\" y2=\"");
+        writeNumber(y1);
+        write("\" stroke-width=\"");
+        writeNumber(strokeWidth);
+        write("\"");
+        writeColor(" stroke", color);
+        write("/>\n");
+    }
+
+    @Override
+    public void fillCircle(float centerX, float centerY, float radius, int color) {
+        write("<circle cx=\"");
+        writeNumber(centerX);
+        write("\" cy=\"");
+        writeNumber(centerY);
+        write("\" r=\"");
+        writeNumber(radius);
+        write("\"");
+        writeColor(" fill", color);
+        write("/>\n");
+    }
+
+    private void writeWedgePath(float cx, float cy, float radius, float innerRadius,
+                                float startAngle, float sweepAngle) {
+        if (sweepAngle >= 360f) {
+            // An arc cannot start and end on the same point, use two halves
+            writeArc(cx, cy, radius, startAngle, 180f, true, true);
+            writeArc(cx, cy, radius, startAngle + 180f, 180f, false, true);
+            if (innerRadius > 0f) {
+                writeArc(cx, cy, innerRadius, startAngle, 180f, true, false);
+                writeArc(cx, cy, innerRadius, startAngle + 180f, 180f, false, false);
+            }
+            write("Z");
+            return;
+        }
+
+        if (innerRadius > 0f) {
+            writeArc(cx, cy, radius, startAngle, sweepAngle, true, true);
+            write("L");
+            writePoint(cx, cy, innerRadius, startAngle + sweepAngle);
+            write("A");
+            writeNumber(innerRadius);
+            write(" ");
+            writeNumber(innerRadius);
+            write(sweepAngle > 180f ? " 0 1 0 " : " 0 0 0 ");
+            writePoint(cx, cy, innerRadius, startAngle);
+        } else {
+            write("M");
+            writeNumber(cx);
+            write(" ");
+            writeNumber(cy);
+            write("L");
+            writePoint(cx, cy, radius, startAngle);
+            writeArc(cx, cy, radius, startAngle, sweepAngle, false, true);
+        }
+        write("Z");
+    }
+
+    /**
+     * @param move start a new subpath at the arc's start point
+     * @param clockwise SVG sweep flag; y points down, so 1 is clockwise on screen
+     */
+    private void writeArc(float cx, float cy, float radius, float startAngle, float sweepAngle,
+                          boolean move, boolean clockwise) {
+        if (move) {
+            write("M");
+            writePoint(cx, cy, radius, startAngle);
+        }
+
+        final float endAngle = clockwise ? startAngle + sweepAngle : startAngle - sweepAngle;
+
+        write("A");
+        writeNumber(radius);
+        write(" ");
+        writeNumber(radius);
+        write(sweepAngle > 180f ? " 0 1 " : " 0 0 ");
+        write(clockwise ? "1 " : "0 ");
+        writePoint(cx, cy, radius, endAngle);
+    }
+
+    private void writePoint(float cx, float cy, float radius, float angle) {
+        final double radians = Math.toRadians(angle);
+        writeNumber(cx + radius * (float) Math.cos(radians));
+        write(" ");
+        writeNumber(cy + radius * (float) Math.sin(radians));
+    }
+
+    private void writeColor(String attribute, int color) {
+        write(attribute);
+        write("=\"#");
+
+        final int rgb = color & 0xffffff;
+        for (int shift = 20; shift >= 0; shift -= 4) {
+            write(Character.forDigit((rgb >> shift) & 0xf, 16));
+        }
+        write("\"");
+
+        final int alpha = color >>> 24;
+        if (alpha != 0xff) {
+            write(attribute);
+            write("-opacity=\"");
+            writeNumber(alpha / 255f);
+            write("\"");
+        }
+    }
+
+    private void writeInt(int value) {
+        write(Integer.toString(value));
+    }
+
+    /**
+     * Writes a number with at most two decimals without going through String
+     * formatting.
+     */
+    private void writeNumber(float value) {
+        long hundredths = Math.round(value * 100.0);
+
+        int pos = mNumber.length;
+        final boolean negative = hundredths < 0;
+        if (negative) {
+            hundredths = -hundredths;
+        }
+
+        final int fraction = (int) (hundredths % 100);
+        long whole = hundredths / 100;
+
+        if (fraction != 0) {
+            if (fraction % 10 != 0) {
+                mNumber[--pos] = (char) ('0' + fraction % 10);
+            }
+            mNumber[--pos] = (char) ('0' + fraction / 10);
+            mNumber[--pos] = '.';
+        }
+
+        do {
+            mNumber[--pos] = (char) ('0' + whole % 10);
+            whole /= 10;
+        } while (whole != 0);
+
+        if (negative) {
+            mNumber[--pos] = '-';
+        }
+
+        if (mError == null) {
+            try {
+                mOut.write(mNumber, pos, mNumber.length - pos);
+            } catch (IOException e) {
+                mError = e;
+            }
+        }
+    }
+
+    private void write(String text) {
+        if (mError == null) {
+            try {
+                mOut.write(text);
+            } catch (IOException e) {
+                mError = e;
+            }
+        }
+    }
+
+    private void write(char c) {
+        if (mError == null) {
+            try {
+                mOut.write(c);
+            } catch (IOException e) {
+                mError = e;
+            }
+        }
+    }
+}
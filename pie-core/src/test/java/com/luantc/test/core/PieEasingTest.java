@@ -0,0 +1,58 @@
+package com.luantc.test.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PieEasingTest {
+
+    /**
+     * Values at 0, 0.5 and 1 of the curves as they were in the app's
+     * animation.Easing before they moved here, quirks included: EaseOutExpo
+     * never reaches 0 and falls below it.
+     */
+    private static final Object[][] OLD_EASING = {
+            {"Linear", 0f, 0.5f, 1f},
+            {"EaseInQuad", 0f, 0.25f, 1f},
+            {"EaseOutQuad", 0f, 0.75f, 1f},
+            {"EaseInOutQuad", 0f, 0.5f, 1f},
+            {"EaseInCubic", 0f, 0.125f, 1f},
+            {"EaseOutCubic", 0f, 0.875f, 1f},
+            {"EaseInOutCubic", 0f, 0.5f, 1f},
+            {"EaseInQuart", 0f, 0.0625f, 1f},
+            {"EaseOutQuart", 0f, 0.9375f, 1f},
+            {"EaseInOutQuart", 0f, 0.5f, 1f},
+            {"EaseInSine", 0f, 0.29289323f, 1f},
+            {"EaseOutSine", 0f, 0.70710677f, 1f},
+            {"EaseInOutSine", 0f, 0.5f, 1f},
+            {"EaseInExpo", 0f, 0.03125f, 1f},
+            {"EaseOutExpo", -9.765625E-4f, -3.0517578E-5f, 1f},
+            {"EaseInOutExpo", 0f, 0.5f, 1f},
+            {"EaseInCirc", 0f, 0.13397461f, 1f},
+            {"EaseOutCirc", 0f, 0.8660254f, 1f},
+            {"EaseInOutCirc", 0f, 0.5f, 1f},
+            {"EaseInElastic", 0f, -0.01562502f, 1f},
+            {"EaseOutElastic", 0f, 1.015625f, 1f},
+            {"EaseInOutElastic", 0f, 0.5f, 1f},
+            {"EaseInBack", 0f, -0.087697506f, 1f},
+            {"EaseOutBack", 0f, 1.0876975f, 1f},
+            {"EaseInOutBack", 0f, 0.5f, 1f},
+            {"EaseInBounce", 0f, 0.234375f, 1f},
+            {"EaseOutBounce", 0f, 0.765625f, 1f},
+            {"EaseInOutBounce", 0f, 0.5f, 1f},
+    };
+
+    @Test
+    public void matchesOldEasing() {
+        assertEquals(OLD_EASING.length, PieEasing.values().length);
+
+        for (Object[] row : OLD_EASING) {
+            final String name = (String) row[0];
+            final PieEasing easing = PieEasing.valueOf(name);
+
+            assertEquals(name + " at 0", (Float) row[1], easing.interpolate(0f), 1e-6f);
+            assertEquals(name + " at 0.5", (Float) row[2], easing.interpolate(0.5f), 1e-6f);
+            assertEquals(name + " at 1", (Float) row[3], easing.interpolate(1f), 1e-6f);
+        }
+    }
+}
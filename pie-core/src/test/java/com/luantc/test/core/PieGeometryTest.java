@@ -0,0 +1,67 @@
+package com.luantc.test.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PieGeometryTest {
+
+    private static final float[] QUARTERS = {25f, 25f, 25f, 25f};
+
+    @Test
+    public void indexOfAngle_wrapsPastZero() {
+        // Slices start at 300, 30, 120 and 210 degrees
+        final PieGeometry geometry = PieGeometry.fromPercentages(QUARTERS, 0f, 0f, 100f, 0f, 300f, 360f);
+
+        assertEquals(0, geometry.indexOfAngle(300f));
+        assertEquals(0, geometry.indexOfAngle(359.5f));
+        assertEquals(0, geometry.indexOfAngle(0f));
+        assertEquals(0, geometry.indexOfAngle(360f));
+        assertEquals(0, geometry.indexOfAngle(-60f));
+        assertEquals(1, geometry.indexOfAngle(31f));
+        assertEquals(2, geometry.indexOfAngle(150f));
+        assertEquals(3, geometry.indexOfAngle(299f));
+        assertEquals(3, geometry.indexOfAngle(-61f));
+    }
+
+    @Test
+    public void indexOfAngle_gaugeArc() {
+        // Upper half of the circle, from 9 to 3 o'clock
+        final PieGeometry geometry = PieGeometry.fromPercentages(QUARTERS, 0f, 0f, 100f, 0f, 180f, 180f);
+
+        assertEquals(0, geometry.indexOfAngle(200f));
+        assertEquals(1, geometry.indexOfAngle(250f));
+        assertEquals(2, geometry.indexOfAngle(-80f));
+        assertEquals(3, geometry.indexOfAngle(350f));
+        assertEquals(3, geometry.indexOfAngle(0f));
+
+        // The lower half is not covered
+        assertEquals(-1, geometry.indexOfAngle(90f));
+        assertEquals(-1, geometry.indexOfAngle(1f));
+        assertEquals(-1, geometry.indexOfAngle(179f));
+    }
+
+    @Test
+    public void hitTest_skipsHoleAndOutside() {
+        final PieGeometry geometry = PieGeometry.fromPercentages(QUARTERS, 100f, 100f, 100f, 40f, 0f, 360f);
+
+        assertEquals(0, geometry.hitTest(150f, 110f));
+        assertEquals(-1, geometry.hitTest(110f, 110f));
+        assertEquals(-1, geometry.hitTest(195f, 195f));
+    }
+
+    @Test
+    public void wedgeBounds_includesCrossedAxes() {
+        final float[] box = new float[4];
+
+        // From 3 o'clock to 9 o'clock through 6 o'clock
+        PieGeometry.wedgeBounds(0f, 0f, 10f, 0f, 180f, box);
+        assertArrayEquals(new float[]{-10f, 0f, 10f, 10f}, box, 1e-4f);
+
+        // A narrow wedge across 3 o'clock
+        PieGeometry.wedgeBounds(0f, 0f, 10f, -10f, 20f, box);
+        assertEquals(0f, box[0], 1e-4f);
+        assertEquals(10f, box[2], 1e-4f);
+        assertEquals(-10f * (float) Math.sin(Math.toRadians(10)), box[1], 1e-4f);
+    }
+}
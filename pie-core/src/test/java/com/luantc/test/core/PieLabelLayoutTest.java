@@ -0,0 +1,98 @@
+package com.luantc.test.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PieLabelLayoutTest {
+
+    private static final float RADIUS = 100f;
+    private static final float LEADER = 20f;
+    private static final float LABEL_HEIGHT = 12f;
+    private static final float GAP = 4f;
+
+    @Test
+    public void crowdedLabels_doNotOverlap() {
+        // Many thin slices around 3 o'clock all want the same height
+        final float[] starts = new float[10];
+        final float[] ends = new float[10];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = -5f + i;
+            ends[i] = -4f + i;
+        }
+        final PieGeometry geometry = PieGeometry.fromAngles(starts, ends, 0f, 0f, RADIUS, 0f, 0f, 360f);
+
+        final PieLabelLayout layout = PieLabelLayout.compute(geometry, RADIUS, LEADER, LABEL_HEIGHT, GAP,
+                -150f, 150f);
+
+        assertNoOverlap(layout, -150f, 150f);
+        for (int i = 0; i < starts.length; i++) {
+            assertTrue(layout.isVisible(i));
+            assertTrue(layout.isRightSide(i));
+            assertEquals(RADIUS + LEADER, layout.getLabelX(i), 1e-4f);
+        }
+    }
+
+    @Test
+    public void narrowestLabels_hiddenWhenColumnIsFull() {
+        // Five slices on the right, room for three labels
+        final float[] starts = {-40f, -30f, -10f, 0f, 25f};
+        final float[] ends = {-30f, -10f, 0f, 25f, 30f};
+        final PieGeometry geometry = PieGeometry.fromAngles(starts, ends, 0f, 0f, RADIUS, 0f, 0f, 360f);
+
+        final PieLabelLayout layout = PieLabelLayout.compute(geometry, RADIUS, LEADER, LABEL_HEIGHT, GAP,
+                -22f, 22f);
+
+        assertTrue(layout.isVisible(1));
+        assertTrue(layout.isVisible(3));
+        assertEquals(3, visibleCount(layout));
+        // The 5 degree slice goes first, then one of the 10 degree ones
+        assertFalse(layout.isVisible(4));
+        assertNoOverlap(layout, -22f, 22f);
+        assertEquals(3 * 8, layout.getLeaderLines().length);
+    }
+
+    @Test
+    public void emptySlices_haveNoLabel() {
+        final PieGeometry geometry = PieGeometry.fromPercentages(new float[]{50f, 0f, 50f}, 0f, 0f, RADIUS, 0f,
+                0f, 360f);
+
+        final PieLabelLayout layout = PieLabelLayout.compute(geometry, RADIUS, LEADER, LABEL_HEIGHT, GAP,
+                -150f, 150f);
+
+        assertFalse(layout.isVisible(1));
+        assertTrue(layout.isVisible(0));
+        assertTrue(layout.isVisible(2));
+        assertTrue(layout.isLayoutFor(geometry, RADIUS, LEADER, LABEL_HEIGHT, GAP, -150f, 150f));
+        assertFalse(layout.isLayoutFor(geometry, RADIUS, LEADER, LABEL_HEIGHT, GAP, -150f, 140f));
+    }
+
+    private static int visibleCount(PieLabelLayout layout) {
+        int visible = 0;
+        for (int i = 0; i < layout.getCount(); i++) {
+            if (layout.isVisible(i)) {
+                visible++;
+            }
+        }
+        return visible;
+    }
+
+    private static void assertNoOverlap(PieLabelLayout layout, float top, float bottom) {
+        final float half = LABEL_HEIGHT / 2f;
+
+        for (int i = 0; i < layout.getCount(); i++) {
+            if (!layout.isVisible(i)) {
+                continue;
+            }
+            final float y = layout.getLabelY(i);
+            assertTrue("label " + i + " inside the column", y - half >= top - 1e-3f && y + half <= bottom + 1e-3f);
+
+            for (int j = i + 1; j < layout.getCount(); j++) {
+                if (layout.isVisible(j) && layout.isRightSide(i) == layout.isRightSide(j)) {
+                    assertTrue("labels " + i + " and " + j + " overlap",
+                            Math.abs(y - layout.getLabelY(j)) >= LABEL_HEIGHT + GAP - 1e-3f);
+                }
+            }
+        }
+    }
+}
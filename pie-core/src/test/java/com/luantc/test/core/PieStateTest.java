@@ -0,0 +1,137 @@
+package com.luantc.test.core;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static org.junit.Assert.*;
+
+public class PieStateTest {
+
+    @Test
+    public void roundTrip_contiguous() {
+        final BitSet highlighted = new BitSet();
+        highlighted.set(1);
+        highlighted.set(8);
+
+        final float[] values = new float[9];
+        final float[] starts = new float[9];
+        final float[] ends = new float[9];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1;
+            starts[i] = i * 40f;
+            ends[i] = (i + 1) * 40f;
+        }
+
+        final PieState state = new PieState(values, starts, ends, highlighted, 33.5f, null);
+        final byte[] data = state.encode();
+        assertEquals(state.getEncodedSize(), data.length);
+
+        final PieState decoded = PieState.decode(data);
+        assertEquals(9, decoded.getCount());
+        assertEquals(33.5f, decoded.getRotation(), 0f);
+        assertFalse(decoded.isRevealing());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], decoded.getValue(i), 0f);
+            assertEquals(starts[i], decoded.getStartAngle(i), 0f);
+            assertEquals(ends[i], decoded.getEndAngle(i), 0f);
+            assertEquals(highlighted.get(i), decoded.isHighlighted(i));
+        }
+    }
+
+    @Test
+    public void roundTrip_gapsAndReveal() {
+        final float[] values = {1f, 2f};
+        final float[] starts = {0f, 100f};
+        final float[] ends = {90f, 270f};
+        final float[] sweeps = {90f, 12.5f};
+
+        final PieState decoded = PieState.decode(
+                new PieState(values, starts, ends, new BitSet(), -15f, sweeps).encode());
+
+        assertEquals(90f, decoded.getEndAngle(0), 0f);
+        assertEquals(100f, decoded.getStartAngle(1), 0f);
+        assertTrue(decoded.isRevealing());
+        assertEquals(12.5f, decoded.getRevealSweep(1), 0f);
+        assertFalse(decoded.isHighlighted(0));
+        assertFalse(decoded.isHighlighted(1));
+    }
+
+    @Test
+    public void roundTrip_empty() {
+        final PieState decoded = PieState.decode(
+                new PieState(new float[0], new float[0], new float[0], new BitSet(), 0f, null).encode());
+
+        assertEquals(0, decoded.getCount());
+    }
+
+    @Test
+    public void roundTrip_selection() {
+        final PieState state = new PieState(new float[]{1f, 2f, 3f}, new float[]{0f, 60f, 180f},
+                new float[]{60f, 180f, 360f}, new BitSet(), 0f, null, 2);
+
+        assertEquals(2, PieState.decode(state.encode()).getSelectedIndex());
+        assertEquals(-1, PieState.decode(new PieState(new float[]{1f}, new float[]{0f}, new float[]{360f},
+                new BitSet(), 0f, null).encode()).getSelectedIndex());
+    }
+
+    @Test
+    public void decode_readsVersion1() {
+        // Without a selection the layout is the same as version 1
+        final byte[] data = new PieState(new float[]{1f, 3f}, new float[]{0f, 90f}, new float[]{90f, 360f},
+                new BitSet(), 45f, null).encode();
+        data[0] = 1;
+
+        final PieState decoded = PieState.decode(data);
+        assertEquals(2, decoded.getCount());
+        assertEquals(45f, decoded.getRotation(), 0f);
+        assertEquals(-1, decoded.getSelectedIndex());
+    }
+
+    @Test
+    public void encodedSize_thousandSlices() {
+        // The class documents about 8 KB, or 12 KB mid-reveal
+        final int count = 1000;
+        final float[] values = new float[count];
+        final float[] starts = new float[count];
+        final float[] ends = new float[count];
+        final float[] sweeps = new float[count];
+        final BitSet highlighted = new BitSet(count);
+        for (int i = 0; i < count; i++) {
+            values[i] = 0.1f;
+            starts[i] = i * 0.36f;
+            ends[i] = (i + 1) * 0.36f;
+            sweeps[i] = 0.18f;
+            highlighted.set(i, i % 7 == 0);
+        }
+
+        final PieState shown = new PieState(values, starts, ends, highlighted, 0f, null, 3);
+        final PieState revealing = new PieState(values, starts, ends, highlighted, 0f, sweeps, 3);
+
+        assertEquals(8 * 1024, shown.getEncodedSize(), 512);
+        assertEquals(12 * 1024, revealing.getEncodedSize(), 512);
+        assertEquals(shown.getEncodedSize(), shown.encode().length);
+
+        final PieState decoded = PieState.decode(revealing.encode());
+        assertEquals(count, decoded.getCount());
+        assertEquals(ends[count - 1], decoded.getEndAngle(count - 1), 0f);
+        assertEquals(0.18f, decoded.getRevealSweep(count - 1), 0f);
+        assertTrue(decoded.isHighlighted(994));
+        assertEquals(3, decoded.getSelectedIndex());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decode_rejectsTruncatedData() {
+        final byte[] data = new PieState(new float[]{1f, 2f}, new float[]{0f, 180f}, new float[]{180f, 360f},
+                new BitSet(), 0f, null).encode();
+        final byte[] truncated = new byte[data.length - 3];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+
+        PieState.decode(truncated);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decode_rejectsUnknownVersion() {
+        PieState.decode(new byte[]{99, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+    }
+}
@@ -0,0 +1,70 @@
+package com.luantc.test.core.java2d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Future;
+
+import com.luantc.test.core.PieGeometry;
+import com.luantc.test.core.PieStyle;
+
+/**
+ * Measures batch throughput, rasterization plus PNG encoding, in charts per
+ * second and per core.
+ *
+ * Usage: BatchRenderBenchmark [charts] [size] [slices] [threads]
+ */
+public class BatchRenderBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int charts = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        final int size = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        final int slices = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        final int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        final Random random = new Random(42);
+        final PieStyle style = new PieStyle().setInnerCircleColor(0xffffffff);
+
+        final List<BatchPieRenderer.Chart> batch = new ArrayList<>(charts);
+        for (int i = 0; i < charts; i++) {
+            final float[] values = new float[slices];
+            for (int j = 0; j < slices; j++) {
+                values[j] = 1f + random.nextInt(100);
+            }
+
+            final PieGeometry geometry = PieGeometry.fromValues(values, size / 2f, size / 2f,
+                    size / 2f - 7.5f, size / 5f, 0f, 360f);
+            batch.add(new BatchPieRenderer.Chart(geometry, style, size, size, i % slices));
+        }
+
+        final BatchPieRenderer renderer = new BatchPieRenderer(threads);
+
+        // Warm up the JIT and the per-thread buffers
+        run(renderer, batch.subList(0, Math.min(200, charts)));
+
+        final long start = System.nanoTime();
+        final long bytes = run(renderer, batch);
+        final double seconds = (System.nanoTime() - start) / 1e9;
+
+        final double perSecond = charts / seconds;
+        System.out.println(String.format("%d charts, %dx%d px, %d slices, %d threads",
+                charts, size, size, slices, threads));
+        System.out.println(String.format("PNG: %.1f charts/s, %.1f charts/s/core, %.1f KB/chart",
+                perSecond, perSecond / threads, bytes / 1024.0 / charts));
+
+        renderer.shutdown();
+    }
+
+    private static long run(BatchPieRenderer renderer, List<BatchPieRenderer.Chart> charts) throws Exception {
+        final List<Future<byte[]>> futures = new ArrayList<>(charts.size());
+        for (BatchPieRenderer.Chart chart : charts) {
+            futures.add(renderer.renderPng(chart));
+        }
+
+        long bytes = 0;
+        for (Future<byte[]> future : futures) {
+            bytes += future.get().length;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,131 @@
+package com.luantc.test.core.java2d;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import com.luantc.test.core.PieGeometry;
+import com.luantc.test.core.PiePainter;
+import com.luantc.test.core.PieStyle;
+
+/**
+ * Renders many charts to PNG concurrently on a fixed thread pool. Each worker
+ * keeps its own image buffer and reuses it while the chart size stays the
+ * same, so steady-state rendering allocates little besides the encoded
+ * output.
+ */
+public class BatchPieRenderer {
+
+    /**
+     * One chart to render. The geometry should be laid out for the chart
+     * size, e.g. centered at width / 2, height / 2.
+     */
+    public static final class Chart {
+
+        final PieGeometry geometry;
+        final PieStyle style;
+        final int width;
+        final int height;
+        final int highlighted;
+
+        public Chart(PieGeometry geometry, PieStyle style, int width, int height, int highlighted) {
+            this.geometry = geometry;
+            this.style = style;
+            this.width = width;
+            this.height = height;
+            this.highlighted = highlighted;
+        }
+    }
+
+    private final ExecutorService mExecutor;
+
+    private final ThreadLocal<BufferedImage> mImages = new ThreadLocal<>();
+
+    public BatchPieRenderer(int threads) {
+        mExecutor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger mCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "PieBatch-" + mCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public Future<byte[]> renderPng(final Chart chart) {
+        return mExecutor.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws Exception {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+                writePng(render(chart), out);
+                return out.toByteArray();
+            }
+        });
+    }
+
+    public Future<File> renderPng(final Chart chart, final File file) {
+        return mExecutor.submit(new Callable<File>() {
+            @Override
+            public File call() throws Exception {
+                if (!ImageIO.write(render(chart), "png", file)) {
+                    throw new IOException("No PNG writer available");
+                }
+                return file;
+            }
+        });
+    }
+
+    /**
+     * Rasterizes a chart into the calling thread's reusable buffer. The image
+     * is overwritten by the next call on the same thread.
+     */
+    public BufferedImage render(Chart chart) {
+        BufferedImage image = mImages.get();
+
+        if (image == null || image.getWidth() != chart.width || image.getHeight() != chart.height) {
+            image = new BufferedImage(chart.width, chart.height, BufferedImage.TYPE_INT_ARGB);
+            mImages.set(image);
+        }
+
+        final Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setComposite(AlphaComposite.Clear);
+            graphics.fillRect(0, 0, chart.width, chart.height);
+            graphics.setComposite(AlphaComposite.SrcOver);
+
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+
+            PiePainter.paint(chart.geometry, chart.style, new Java2DPieCanvas(graphics), chart.highlighted);
+        } finally {
+            graphics.dispose();
+        }
+
+        return image;
+    }
+
+    private static void writePng(BufferedImage image, OutputStream out) throws IOException {
+        if (!ImageIO.write(image, "png", out)) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+
+    public void shutdown() {
+        mExecutor.shutdown();
+    }
+}
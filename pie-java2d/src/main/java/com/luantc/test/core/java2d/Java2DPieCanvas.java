@@ -0,0 +1,82 @@
+package com.luantc.test.core.java2d;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+
+import com.luantc.test.core.PieCanvas;
+
+/**
+ * {@link PieCanvas} backed by a Java2D Graphics2D, for rendering charts on a
+ * server. Java2D measures arc angles counter-clockwise, so angles are
+ * negated on the way in.
+ *
+ * Shapes are reused between calls; an instance must only be used by one
+ * thread at a time.
+ */
+public class Java2DPieCanvas implements PieCanvas {
+
+    private final Graphics2D mGraphics;
+
+    private final Arc2D.Float mArc = new Arc2D.Float();
+    private final Path2D.Float mPath = new Path2D.Float();
+    private final Line2D.Float mLine = new Line2D.Float();
+    private final Ellipse2D.Float mCircle = new Ellipse2D.Float();
+
+    public Java2DPieCanvas(Graphics2D graphics) {
+        mGraphics = graphics;
+    }
+
+    @Override
+    public void fillWedge(float centerX, float centerY, float radius, float innerRadius,
+                          float startAngle, float sweepAngle, int color) {
+        mGraphics.setColor(new Color(color, true));
+        mGraphics.fill(wedge(centerX, centerY, radius, innerRadius, startAngle, sweepAngle));
+    }
+
+    @Override
+    public void strokeWedge(float centerX, float centerY, float radius, float innerRadius,
+                            float startAngle, float sweepAngle, float strokeWidth, int color) {
+        mGraphics.setColor(new Color(color, true));
+        mGraphics.setStroke(new BasicStroke(strokeWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        mGraphics.draw(wedge(centerX, centerY, radius, innerRadius, startAngle, sweepAngle));
+    }
+
+    @Override
+    public void drawLine(float x0, float y0, float x1, float y1, float strokeWidth, int color) {
+        mGraphics.setColor(new Color(color, true));
+        mGraphics.setStroke(new BasicStroke(strokeWidth));
+        mLine.setLine(x0, y0, x1, y1);
+        mGraphics.draw(mLine);
+    }
+
+    @Override
+    public void fillCircle(float centerX, float centerY, float radius, int color) {
+        mGraphics.setColor(new Color(color, true));
+        mCircle.setFrame(centerX - radius, centerY - radius, radius * 2f, radius * 2f);
+        mGraphics.fill(mCircle);
+    }
+
+    private java.awt.Shape wedge(float centerX, float centerY, float radius, float innerRadius,
+                                 float startAngle, float sweepAngle) {
+        if (innerRadius <= 0f) {
+            mArc.setArcByCenter(centerX, centerY, radius, -startAngle, -sweepAngle, Arc2D.PIE);
+            return mArc;
+        }
+
+        mPath.reset();
+
+        mArc.setArcByCenter(centerX, centerY, radius, -startAngle, -sweepAngle, Arc2D.OPEN);
+        mPath.append(mArc, false);
+
+        mArc.setArcByCenter(centerX, centerY, innerRadius, -(startAngle + sweepAngle), sweepAngle, Arc2D.OPEN);
+        mPath.append(mArc, true);
+
+        mPath.closePath();
+        return mPath;
+    }
+}